@@ -0,0 +1,79 @@
+package com.secondhand.platform.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * 连接池配置
+ * 未指定连接池大小时按 CPU 核数计算；启动后输出实际生效的连接池、PgJDBC 和 Hibernate 批处理配置，
+ * SQL 日志处于开启状态时给出警告
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class DataSourceConfig {
+
+    private final DataSource dataSource;
+    private final Environment environment;
+
+    /**
+     * db.pool.max-size 为 0 时按 CPU 核数 * 2 + 1 设置连接池大小；未配置时沿用 Hikari 自身配置
+     */
+    @Bean
+    public static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                Integer configured = environment.getProperty("db.pool.max-size", Integer.class);
+                // 连接池在第一次获取连接时才启动，这里修改大小仍然有效
+                if (bean instanceof HikariDataSource hikari && configured != null) {
+                    int size = configured > 0 ? configured : Runtime.getRuntime().availableProcessors() * 2 + 1;
+                    hikari.setMaximumPoolSize(size);
+                    if (hikari.getMinimumIdle() > size) {
+                        hikari.setMinimumIdle(size);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logEffectiveSettings() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            log.info("Connection pool: maximumPoolSize={}, minimumIdle={}, connectionTimeout={} ms, " +
+                            "leakDetectionThreshold={} ms, dataSourceProperties={}",
+                    hikari.getMaximumPoolSize(), hikari.getMinimumIdle(), hikari.getConnectionTimeout(),
+                    hikari.getLeakDetectionThreshold(), hikari.getDataSourceProperties());
+        } else {
+            log.info("Connection pool: {}", dataSource.getClass().getName());
+        }
+
+        log.info("Hibernate: jdbc.batch_size={}, order_inserts={}, order_updates={}",
+                property("spring.jpa.properties.hibernate.jdbc.batch_size"),
+                property("spring.jpa.properties.hibernate.order_inserts"),
+                property("spring.jpa.properties.hibernate.order_updates"));
+
+        if (environment.getProperty("spring.jpa.show-sql", Boolean.class, false)
+                || environment.getProperty("spring.jpa.properties.hibernate.show_sql", Boolean.class, false)) {
+            log.warn("SQL logging is enabled (spring.jpa.show-sql); every statement is written to stdout");
+        }
+        String sqlLogLevel = environment.getProperty("logging.level.org.hibernate.SQL");
+        if ("DEBUG".equalsIgnoreCase(sqlLogLevel) || "TRACE".equalsIgnoreCase(sqlLogLevel)) {
+            log.warn("SQL logging is enabled (logging.level.org.hibernate.SQL={})", sqlLogLevel);
+        }
+    }
+
+    private String property(String name) {
+        return environment.getProperty(name, "unset");
+    }
+}
@@ -0,0 +1,97 @@
+package com.secondhand.platform.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secondhand.platform.dto.ApiResponse;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 虚拟线程模式下的请求隔离
+ * 虚拟线程不再受 Tomcat 线程池大小限制，几乎所有接口都会访问数据库，
+ * 不加限制时大量请求会堆积在 Hikari 连接池上直到获取连接超时。
+ * 这里按连接池大小限制同时处理的请求数，等待超时直接返回 503
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RequestBulkheadFilter extends OncePerRequestFilter {
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+
+    @Value("${bulkhead.permits-per-connection:4}")
+    private int permitsPerConnection;
+
+    @Value("${bulkhead.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+        int limit = poolSize * permitsPerConnection;
+        permits = new Semaphore(limit);
+        log.info("Virtual threads enabled: request bulkhead allows {} concurrent requests ({} connections x {})",
+                limit, poolSize, permitsPerConnection);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        // 上传文件的静态访问不占用数据库连接
+        return request.getRequestURI().startsWith(request.getContextPath() + "/uploads/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error(503, "Server busy, please retry later"));
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.secondhand.platform.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * 虚拟线程 pin 诊断
+ * 通过 JFR 的 jdk.VirtualThreadPinned 事件记录在 synchronized 块或本地方法中阻塞、
+ * 无法从载体线程卸载的情况，超过阈值时输出调用栈，便于定位需要改为 ReentrantLock 的代码
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    @Value("${virtual-threads.pinning-threshold-ms:20}")
+    private long thresholdMs;
+
+    @Value("${virtual-threads.pinning-stack-depth:8}")
+    private int stackDepth;
+
+    private RecordingStream stream;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned")
+                .withThreshold(Duration.ofMillis(thresholdMs))
+                .withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", event ->
+                log.warn("Virtual thread pinned for {} ms:\n{}",
+                        event.getDuration().toMillis(), format(event.getStackTrace())));
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold {} ms)", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "    (no stack trace)";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(stackDepth)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String format(RecordedFrame frame) {
+        return "    at " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -3,9 +3,14 @@ package com.secondhand.platform.controller;
 import com.secondhand.platform.dto.ApiResponse;
 import com.secondhand.platform.dto.CategoryResponse;
 import com.secondhand.platform.service.CategoryService;
+import com.secondhand.platform.service.CategorySnapshot;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,10 +21,20 @@ public class CategoryController {
 
     private final CategoryService categoryService;
 
+    /**
+     * 分类树直接返回快照中预先序列化的 JSON，客户端带 If-None-Match 且未变化时返回 304
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CategoryResponse>>> getAllCategories() {
-        List<CategoryResponse> response = categoryService.getAllCategories();
-        return ResponseEntity.ok(ApiResponse.success(response));
+    public ResponseEntity<byte[]> getAllCategories(WebRequest webRequest) {
+        CategorySnapshot snapshot = categoryService.getSnapshot();
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getTreeJson());
     }
 
     @GetMapping("/root")
@@ -35,8 +35,10 @@ public class OrderController {
             @AuthenticationPrincipal UserPrincipal user,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer pageSize,
-            @RequestParam(required = false) String status) {
-        PageResponse<OrderResponse> response = orderService.getBuyerOrders(user.getId(), page, pageSize, status);
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean withTotal) {
+        PageResponse<OrderResponse> response = orderService.getBuyerOrders(user.getId(), page, pageSize, status, cursor, withTotal);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -48,8 +50,10 @@ public class OrderController {
             @AuthenticationPrincipal UserPrincipal user,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer pageSize,
-            @RequestParam(required = false) String status) {
-        PageResponse<OrderResponse> response = orderService.getBuyerOrders(user.getId(), page, pageSize, status);
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean withTotal) {
+        PageResponse<OrderResponse> response = orderService.getBuyerOrders(user.getId(), page, pageSize, status, cursor, withTotal);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -61,8 +65,20 @@ public class OrderController {
             @AuthenticationPrincipal UserPrincipal user,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer pageSize,
-            @RequestParam(required = false) String status) {
-        PageResponse<OrderResponse> response = orderService.getSellerOrders(user.getId(), page, pageSize, status);
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean withTotal) {
+        PageResponse<OrderResponse> response = orderService.getSellerOrders(user.getId(), page, pageSize, status, cursor, withTotal);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * 获取我的订单统计
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<OrderStatsResponse>> getOrderStats(
+            @AuthenticationPrincipal UserPrincipal user) {
+        OrderStatsResponse response = orderService.getOrderStats(user.getId());
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
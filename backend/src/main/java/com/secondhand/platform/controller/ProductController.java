@@ -63,8 +63,11 @@ public class ProductController {
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "12") Integer pageSize,
             @RequestParam(required = false) String keyword,
-            @RequestParam(required = false) String category) {
-        ProductPageResponse response = productService.getProducts(page, pageSize, keyword, category);
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean withTotal,
+            @RequestParam(required = false) String countMode) {
+        ProductPageResponse response = productService.getProducts(page, pageSize, keyword, category, cursor, withTotal, countMode);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -79,7 +82,10 @@ public class ProductController {
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortOrder,
             @RequestParam(defaultValue = "0") Integer page,
-            @RequestParam(defaultValue = "20") Integer size) {
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean withTotal,
+            @RequestParam(required = false) String countMode) {
 
         ProductSearchRequest request = new ProductSearchRequest();
         request.setKeyword(keyword);
@@ -92,6 +98,9 @@ public class ProductController {
         request.setSortOrder(sortOrder);
         request.setPage(page);
         request.setSize(size);
+        request.setCursor(cursor);
+        request.setWithTotal(withTotal);
+        request.setCountMode(countMode);
 
         PageResponse<ProductListResponse> response = productService.searchProducts(request);
         return ResponseEntity.ok(ApiResponse.success(response));
@@ -101,20 +110,26 @@ public class ProductController {
     public ResponseEntity<ApiResponse<ProductPageResponse>> getMyProducts(
             @AuthenticationPrincipal UserPrincipal user,
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "10") Integer pageSize) {
-        ProductPageResponse response = productService.getMyProducts(user.getId(), page, pageSize);
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean withTotal,
+            @RequestParam(required = false) String countMode) {
+        ProductPageResponse response = productService.getMyProducts(user.getId(), page, pageSize, cursor, withTotal, countMode);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
     @GetMapping("/latest")
-    public ResponseEntity<ApiResponse<List<ProductListResponse>>> getLatestProducts() {
-        List<ProductListResponse> response = productService.getLatestProducts(10);
+    public ResponseEntity<ApiResponse<List<ProductListResponse>>> getLatestProducts(
+            @RequestParam(defaultValue = "10") Integer limit) {
+        List<ProductListResponse> response = productService.getLatestProducts(limit);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
     @GetMapping("/hot")
-    public ResponseEntity<ApiResponse<List<ProductListResponse>>> getHotProducts() {
-        List<ProductListResponse> response = productService.getHotProducts(10);
+    public ResponseEntity<ApiResponse<List<ProductListResponse>>> getHotProducts(
+            @RequestParam(defaultValue = "10") Integer limit,
+            @RequestParam(required = false) Integer categoryId) {
+        List<ProductListResponse> response = productService.getHotProducts(limit, categoryId);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 }
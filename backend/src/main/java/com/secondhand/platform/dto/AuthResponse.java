@@ -14,6 +14,7 @@ import java.time.LocalDateTime;
 public class AuthResponse {
 
     private String token;
+    private String refreshToken;
     private UserInfo user;
 
     @Data
@@ -30,8 +31,14 @@ public class AuthResponse {
     }
 
     public static AuthResponse of(String token, Long userId, String username, String email, String phone, LocalDateTime createdAt) {
+        return of(token, null, userId, username, email, phone, createdAt);
+    }
+
+    public static AuthResponse of(String token, String refreshToken, Long userId, String username, String email,
+                                  String phone, LocalDateTime createdAt) {
         return AuthResponse.builder()
                 .token(token)
+                .refreshToken(refreshToken)
                 .user(UserInfo.builder()
                         .id(userId)
                         .username(username)
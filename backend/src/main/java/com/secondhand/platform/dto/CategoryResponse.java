@@ -16,6 +16,7 @@ public class CategoryResponse {
 
     private Integer id;
     private String name;
+    private String slug;
     private Integer parentId;
     private String icon;
     private Integer sortOrder;
@@ -25,6 +26,7 @@ public class CategoryResponse {
         return CategoryResponse.builder()
                 .id(category.getId())
                 .name(category.getName())
+                .slug(category.getSlug())
                 .parentId(category.getParentId())
                 .icon(category.getIcon())
                 .sortOrder(category.getSortOrder())
@@ -35,6 +37,7 @@ public class CategoryResponse {
         CategoryResponseBuilder builder = CategoryResponse.builder()
                 .id(category.getId())
                 .name(category.getName())
+                .slug(category.getSlug())
                 .parentId(category.getParentId())
                 .icon(category.getIcon())
                 .sortOrder(category.getSortOrder());
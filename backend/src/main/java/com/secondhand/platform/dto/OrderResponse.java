@@ -61,6 +61,29 @@ public class OrderResponse {
                 .build();
     }
 
+    public static OrderResponse fromSummary(OrderSummary summary) {
+        return OrderResponse.builder()
+                .id(summary.id())
+                .orderNo(summary.orderNo())
+                .productId(summary.productId())
+                .productName(summary.productTitle())
+                .productImage(summary.productImage())
+                .price(summary.productPrice())
+                .quantity(summary.quantity())
+                .totalAmount(summary.totalAmount())
+                .status(Order.statusText(summary.status()))
+                .buyerId(summary.buyerId())
+                .sellerId(summary.sellerId())
+                .buyerName(summary.buyerName())
+                .sellerName(summary.sellerName())
+                .createdAt(summary.createdAt())
+                .paidAt(summary.paidAt())
+                .shippedAt(summary.shippedAt())
+                .completedAt(summary.completedAt())
+                .cancelledAt(summary.cancelledAt())
+                .build();
+    }
+
     public static OrderResponse fromEntitySimple(Order order) {
         return OrderResponse.builder()
                 .id(order.getId())
@@ -0,0 +1,20 @@
+package com.secondhand.platform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatsResponse {
+
+    // 作为买家的订单数，按状态（pending / paid / shipped / completed / cancelled）
+    private Map<String, Long> buying;
+    // 作为卖家的订单数
+    private Map<String, Long> selling;
+}
@@ -0,0 +1,29 @@
+package com.secondhand.platform.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 订单列表投影：只包含列表页需要的列，不读取备注等 TEXT 列；
+ * 买家名和卖家名通过 LEFT JOIN 同一条查询取出
+ */
+public record OrderSummary(
+        Long id,
+        String orderNo,
+        Long productId,
+        String productTitle,
+        String productImage,
+        BigDecimal productPrice,
+        Integer quantity,
+        BigDecimal totalAmount,
+        Short status,
+        Long buyerId,
+        String buyerName,
+        Long sellerId,
+        String sellerName,
+        LocalDateTime createdAt,
+        LocalDateTime paidAt,
+        LocalDateTime shippedAt,
+        LocalDateTime completedAt,
+        LocalDateTime cancelledAt) {
+}
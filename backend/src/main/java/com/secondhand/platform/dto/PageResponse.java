@@ -19,15 +19,26 @@ public class PageResponse<T> {
     private int page;
     private int size;
     private long totalElements;
+    // totalElements 为查询计划估计值（"约 N 条"）
+    private boolean totalEstimated;
     private int totalPages;
     private boolean first;
     private boolean last;
+    // 键集分页游标，没有下一页或当前排序不支持游标时为 null
+    private String nextCursor;
 
     public static <T, E> PageResponse<T> from(Page<E> page, Function<E, T> mapper) {
         List<T> content = page.getContent().stream()
                 .map(mapper)
                 .toList();
 
+        return from(page, content);
+    }
+
+    /**
+     * content 为调用方已组装好的当前页数据（如批量加载关联后组装的 DTO）
+     */
+    public static <T> PageResponse<T> from(Page<?> page, List<T> content) {
         return PageResponse.<T>builder()
                 .content(content)
                 .page(page.getNumber())
@@ -38,4 +49,22 @@ public class PageResponse<T> {
                 .last(page.isLast())
                 .build();
     }
+
+    /**
+     * 不依赖 count 的分页结果；totalElements 为 -1 表示未统计总数
+     */
+    public static <T> PageResponse<T> of(List<T> content, int page, int size, long totalElements,
+                                         boolean first, boolean hasMore, String nextCursor) {
+        int totalPages = totalElements < 0 ? -1 : (int) ((totalElements + size - 1) / size);
+        return PageResponse.<T>builder()
+                .content(content)
+                .page(page)
+                .size(size)
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .first(first)
+                .last(!hasMore)
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
@@ -28,8 +28,27 @@ public class ProductItemResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
-    public static ProductItemResponse fromEntity(Product product) {
-        String categoryStr = mapCategoryIdToString(product.getCategoryId());
+    /**
+     * 列表项不返回 description，详情页通过 ProductResponse 获取
+     */
+    public static ProductItemResponse fromSummary(ProductSummary summary, String categorySlug) {
+        return ProductItemResponse.builder()
+                .id(summary.id())
+                .name(summary.title())
+                .category(categorySlug != null ? categorySlug : "other")
+                .price(summary.price())
+                .stock(1)
+                .images(List.of(summary.coverUrl() != null ? summary.coverUrl() : ""))
+                .sellerId(summary.sellerId())
+                .sellerName(summary.sellerName() != null ? summary.sellerName() : "未知用户")
+                .status(mapStatusToString(summary.status()))
+                .createdAt(summary.createdAt())
+                .updatedAt(summary.updatedAt())
+                .build();
+    }
+
+    public static ProductItemResponse fromEntity(Product product, String categorySlug) {
+        String categoryStr = categorySlug != null ? categorySlug : "other";
         String statusStr = mapStatusToString(product.getStatus());
 
         List<String> imageList = List.of(product.getCoverUrl() != null ? product.getCoverUrl() : "");
@@ -50,26 +69,13 @@ public class ProductItemResponse {
                 .build();
     }
 
-    private static String mapCategoryIdToString(Integer categoryId) {
-        if (categoryId == null) return "other";
-        return switch (categoryId) {
-            case 1 -> "clothing";
-            case 2 -> "electronics";
-            case 3 -> "shoes";
-            case 4 -> "study";
-            case 5 -> "daily";
-            case 6 -> "sports";
-            case 7 -> "books";
-            default -> "other";
-        };
-    }
-
     private static String mapStatusToString(Short status) {
         if (status == null) return "on_sale";
         return switch (status) {
             case 1 -> "on_sale";
             case 0 -> "off_sale";
             case 2 -> "sold_out";
+            case 3 -> "reserved";
             default -> "off_sale";
         };
     }
@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ProductListResponse {
 
     private Long id;
@@ -33,6 +33,24 @@ public class ProductListResponse {
 
     private LocalDateTime createdAt;
 
+    public static ProductListResponse fromSummary(ProductSummary summary) {
+        return ProductListResponse.builder()
+                .id(summary.id())
+                .sellerId(summary.sellerId())
+                .sellerName(summary.sellerName())
+                .title(summary.title())
+                .coverUrl(summary.coverUrl())
+                .price(summary.price())
+                .originalPrice(summary.originalPrice())
+                .categoryName(summary.categoryName())
+                .condition(summary.condition())
+                .status(summary.status())
+                .location(summary.location())
+                .viewCount(summary.viewCount())
+                .createdAt(summary.createdAt())
+                .build();
+    }
+
     public static ProductListResponse fromEntity(Product product) {
         ProductListResponseBuilder builder = ProductListResponse.builder()
                 .id(product.getId())
@@ -13,7 +13,12 @@ import java.util.List;
 @Builder
 public class ProductPageResponse {
     private List<ProductItemResponse> list;
+    // -1 表示未统计总数
     private long total;
+    // total 为查询计划估计值（"约 N 条"）
+    private boolean totalEstimated;
     private int page;
     private int pageSize;
+    // 键集分页游标，没有下一页或当前排序不支持游标时为 null
+    private String nextCursor;
 }
@@ -32,7 +32,10 @@ public class ProductResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
-    public static ProductResponse fromEntity(Product product) {
+    /**
+     * @param categorySlug 分类 slug，由 CategoryRegistry 提供；为 null 时返回 "other"
+     */
+    public static ProductResponse fromEntity(Product product, String categorySlug) {
         // 构建图片列表
         List<String> imageList = new ArrayList<>();
         if (product.getImages() != null && !product.getImages().isEmpty()) {
@@ -47,7 +50,7 @@ public class ProductResponse {
         return ProductResponse.builder()
                 .id(product.getId())
                 .name(product.getTitle())
-                .category(mapCategoryIdToString(product.getCategoryId()))
+                .category(categorySlug != null ? categorySlug : "other")
                 .price(product.getPrice())
                 .stock(1)
                 .description(product.getDescription())
@@ -60,26 +63,13 @@ public class ProductResponse {
                 .build();
     }
 
-    private static String mapCategoryIdToString(Integer categoryId) {
-        if (categoryId == null) return "other";
-        return switch (categoryId) {
-            case 1 -> "electronics";
-            case 2 -> "clothing";
-            case 3 -> "shoes";
-            case 4 -> "study";
-            case 5 -> "daily";
-            case 6 -> "sports";
-            case 7 -> "books";
-            default -> "other";
-        };
-    }
-
     private static String mapStatusToString(Short status) {
         if (status == null) return "on_sale";
         return switch (status) {
             case 1 -> "on_sale";
             case 0 -> "off_sale";
             case 2 -> "sold_out";
+            case 3 -> "reserved";
             default -> "off_sale";
         };
     }
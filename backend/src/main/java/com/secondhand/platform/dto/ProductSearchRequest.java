@@ -21,4 +21,7 @@ public class ProductSearchRequest {
     private String sortOrder = "desc";     // asc, desc
     private Integer page = 0;
     private Integer size = 20;
+    private String cursor;                 // 键集分页游标，传入时忽略 page
+    private Boolean withTotal;             // 是否统计总数，默认偏移分页统计、游标分页不统计
+    private String countMode;              // exact, cached, estimated
 }
@@ -0,0 +1,26 @@
+package com.secondhand.platform.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 商品列表投影：只包含列表页需要的列，不读取 description / search_text 等 TEXT 列；
+ * 卖家名和分类名通过 LEFT JOIN 同一条查询取出
+ */
+public record ProductSummary(
+        Long id,
+        Long sellerId,
+        String sellerName,
+        String title,
+        String coverUrl,
+        BigDecimal price,
+        BigDecimal originalPrice,
+        Integer categoryId,
+        String categoryName,
+        Short condition,
+        Short status,
+        String location,
+        Integer viewCount,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -24,6 +24,9 @@ public class Category {
     @Column(nullable = false, length = 64)
     private String name;
 
+    @Column(length = 64, unique = true)
+    private String slug;
+
     @Column(name = "parent_id")
     private Integer parentId;
 
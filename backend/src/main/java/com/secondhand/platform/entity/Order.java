@@ -103,6 +103,10 @@ public class Order {
 
     // 状态转换为字符串
     public String getStatusText() {
+        return statusText(status);
+    }
+
+    public static String statusText(Short status) {
         if (status == null) return "unknown";
         return switch (status.intValue()) {
             case 0 -> "pending";
@@ -0,0 +1,47 @@
+package com.secondhand.platform.entity;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 订单状态迁移表
+ * 每个迁移对应一条带条件的 UPDATE：订单当前状态和操作人都匹配时才生效，
+ * 需要联动商品状态的迁移（支付、取消）在同一条语句中更新商品
+ */
+@Getter
+@RequiredArgsConstructor
+public enum OrderTransition {
+
+    PAY(Order.STATUS_PENDING, Order.STATUS_PAID, Actor.BUYER, "paid_at",
+            Product.STATUS_RESERVED, Product.STATUS_SOLD, "订单状态不正确"),
+    SHIP(Order.STATUS_PAID, Order.STATUS_SHIPPED, Actor.SELLER, "shipped_at",
+            null, null, "订单状态不正确，只有已支付订单可以发货"),
+    COMPLETE(Order.STATUS_SHIPPED, Order.STATUS_COMPLETED, Actor.BUYER, "completed_at",
+            null, null, "订单状态不正确，只有已发货订单可以确认收货"),
+    CANCEL(Order.STATUS_PENDING, Order.STATUS_CANCELLED, Actor.PARTY, "cancelled_at",
+            Product.STATUS_RESERVED, Product.STATUS_ON_SALE, "只有待支付订单可以取消");
+
+    public enum Actor {
+        BUYER, SELLER, PARTY
+    }
+
+    private final short from;
+    private final short to;
+    private final Actor actor;
+    private final String timestampColumn;
+    private final Short productFrom;
+    private final Short productTo;
+    private final String invalidStateMessage;
+
+    public boolean affectsProduct() {
+        return productFrom != null;
+    }
+
+    public boolean permits(Long userId, Long buyerId, Long sellerId) {
+        return switch (actor) {
+            case BUYER -> userId.equals(buyerId);
+            case SELLER -> userId.equals(sellerId);
+            case PARTY -> userId.equals(buyerId) || userId.equals(sellerId);
+        };
+    }
+}
@@ -50,6 +50,7 @@ public class Product {
     @Column(nullable = false)
     @Builder.Default
     private Short status = 1;
+    // 状态: 1=上架中, 0=已下架, 2=已售出, 3=已预留（有待支付订单）, -1=已删除
 
     @Column(length = 128)
     private String location;
@@ -85,6 +86,13 @@ public class Product {
         updateSearchText();
     }
 
+    // 状态常量
+    public static final short STATUS_ON_SALE = 1;
+    public static final short STATUS_OFF_SALE = 0;
+    public static final short STATUS_SOLD = 2;
+    public static final short STATUS_RESERVED = 3;
+    public static final short STATUS_DELETED = -1;
+
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
@@ -92,6 +100,10 @@ public class Product {
     }
 
     private void updateSearchText() {
-        this.searchText = (title != null ? title : "") + " " + (description != null ? description : "");
+        this.searchText = searchTextOf(title, description);
+    }
+
+    public static String searchTextOf(String title, String description) {
+        return (title != null ? title : "") + " " + (description != null ? description : "");
     }
 }
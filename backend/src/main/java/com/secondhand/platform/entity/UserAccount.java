@@ -39,6 +39,10 @@ public class UserAccount {
     @Builder.Default
     private Short status = 1;
 
+    // 修改密码时间，此前签发的令牌全部失效
+    @Column(name = "tokens_revoked_before")
+    private LocalDateTime tokensRevokedBefore;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
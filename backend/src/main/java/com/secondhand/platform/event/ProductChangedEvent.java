@@ -0,0 +1,21 @@
+package com.secondhand.platform.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 商品写入事件，事务提交后由搜索索引等下游组件消费
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, STATUS_CHANGED, DELETED, SOLD
+    }
+
+    private final Long productId;
+    private final ChangeType type;
+}
@@ -0,0 +1,17 @@
+package com.secondhand.platform.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户此前签发的令牌全部失效（如修改密码），吊销时间已写入 user_accounts.tokens_revoked_before
+ */
+@Getter
+@AllArgsConstructor
+public class UserTokensRevokedEvent {
+
+    private final Long userId;
+    private final LocalDateTime revokedBefore;
+}
@@ -0,0 +1,16 @@
+package com.secondhand.platform.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * 浏览量批量写回后发布，携带本批商品写回后的最新浏览量
+ */
+@Getter
+@AllArgsConstructor
+public class ViewCountsFlushedEvent {
+
+    private final Map<Long, Integer> viewCounts;
+}
@@ -1,6 +1,7 @@
 package com.secondhand.platform.exception;
 
 import com.secondhand.platform.dto.ApiResponse;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -16,6 +17,18 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // PostgreSQL 默认唯一约束名 -> 错误信息
+    private static final Map<String, String> CONSTRAINT_MESSAGES = Map.of(
+            "user_accounts_username_key", "Username already exists",
+            "user_accounts_email_key", "Email already exists",
+            "user_accounts_phone_key", "Phone number already exists"
+    );
+
+    // 并发冲突类约束 -> 409 错误信息
+    private static final Map<String, String> CONFLICT_MESSAGES = Map.of(
+            "uq_orders_active_product", "该商品已有进行中的订单"
+    );
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ApiResponse<Void>> handleBusinessException(BusinessException e) {
         return ResponseEntity
@@ -37,6 +50,31 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(400, "Validation failed"));
     }
 
+    /**
+     * 唯一约束冲突按约束名转换为对应字段的 400，其余完整性错误返回 409
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleDataIntegrityViolationException(DataIntegrityViolationException e) {
+        String detail = String.valueOf(e.getMostSpecificCause().getMessage());
+        for (Map.Entry<String, String> entry : CONSTRAINT_MESSAGES.entrySet()) {
+            if (detail.contains(entry.getKey())) {
+                return ResponseEntity
+                        .status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error(400, entry.getValue()));
+            }
+        }
+        for (Map.Entry<String, String> entry : CONFLICT_MESSAGES.entrySet()) {
+            if (detail.contains(entry.getKey())) {
+                return ResponseEntity
+                        .status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.error(409, entry.getValue()));
+            }
+        }
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(409, "Data conflict"));
+    }
+
     @ExceptionHandler(UsernameNotFoundException.class)
     public ResponseEntity<ApiResponse<Void>> handleUsernameNotFoundException(UsernameNotFoundException e) {
         return ResponseEntity
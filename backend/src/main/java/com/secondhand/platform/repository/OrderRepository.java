@@ -1,8 +1,6 @@
 package com.secondhand.platform.repository;
 
 import com.secondhand.platform.entity.Order;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,23 +9,11 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
 
     // 根据订单号查询
     Optional<Order> findByOrderNo(String orderNo);
 
-    // 买家订单列表
-    Page<Order> findByBuyerIdOrderByCreatedAtDesc(Long buyerId, Pageable pageable);
-
-    // 买家订单列表（按状态筛选）
-    Page<Order> findByBuyerIdAndStatusOrderByCreatedAtDesc(Long buyerId, Short status, Pageable pageable);
-
-    // 卖家订单列表
-    Page<Order> findBySellerIdOrderByCreatedAtDesc(Long sellerId, Pageable pageable);
-
-    // 卖家订单列表（按状态筛选）
-    Page<Order> findBySellerIdAndStatusOrderByCreatedAtDesc(Long sellerId, Short status, Pageable pageable);
-
     // 查询订单详情（带关联）
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.buyer LEFT JOIN FETCH o.seller WHERE o.id = :id")
     Optional<Order> findByIdWithDetails(@Param("id") Long id);
@@ -40,4 +26,10 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     // 统计卖家订单数量
     long countBySellerId(Long sellerId);
+
+    // 统计买家某状态的订单数量
+    long countByBuyerIdAndStatus(Long buyerId, Short status);
+
+    // 统计卖家某状态的订单数量
+    long countBySellerIdAndStatus(Long sellerId, Short status);
 }
@@ -0,0 +1,30 @@
+package com.secondhand.platform.repository;
+
+import com.secondhand.platform.dto.OrderSummary;
+import com.secondhand.platform.entity.Order;
+import com.secondhand.platform.entity.OrderTransition;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * 执行一次状态迁移并返回更新后的订单；订单不存在、操作人不符或状态已变化时返回空
+     */
+    Optional<Order> transition(Long orderId, Long userId, OrderTransition transition);
+
+    /**
+     * 买家订单列表，按 (created_at, id) 倒序；status 为 null 时不筛选，
+     * afterCreatedAt/afterId 不为 null 时从该位置之后开始读取（键集分页），否则按 offset 跳过
+     */
+    List<OrderSummary> findBuyerSummaries(Long buyerId, Short status,
+                                          LocalDateTime afterCreatedAt, Long afterId, long offset, int limit);
+
+    /**
+     * 卖家订单列表，参数同 {@link #findBuyerSummaries}
+     */
+    List<OrderSummary> findSellerSummaries(Long sellerId, Short status,
+                                           LocalDateTime afterCreatedAt, Long afterId, long offset, int limit);
+}
@@ -0,0 +1,161 @@
+package com.secondhand.platform.repository;
+
+import com.secondhand.platform.dto.OrderSummary;
+import com.secondhand.platform.entity.Order;
+import com.secondhand.platform.entity.OrderTransition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private static final String RETURNING_COLUMNS =
+            "id, order_no, product_id, buyer_id, seller_id, product_title, product_image, product_price, " +
+            "quantity, total_amount, status, created_at, paid_at, shipped_at, completed_at, cancelled_at, " +
+            "buyer_remark, seller_remark";
+
+    private static final Map<OrderTransition, String> SQL = new EnumMap<>(OrderTransition.class);
+
+    static {
+        for (OrderTransition transition : OrderTransition.values()) {
+            SQL.put(transition, buildSql(transition));
+        }
+    }
+
+    private static final RowMapper<Order> ORDER_MAPPER = (rs, rowNum) -> Order.builder()
+            .id(rs.getLong("id"))
+            .orderNo(rs.getString("order_no"))
+            .productId(rs.getLong("product_id"))
+            .buyerId(rs.getLong("buyer_id"))
+            .sellerId(rs.getLong("seller_id"))
+            .productTitle(rs.getString("product_title"))
+            .productImage(rs.getString("product_image"))
+            .productPrice(rs.getBigDecimal("product_price"))
+            .quantity(rs.getInt("quantity"))
+            .totalAmount(rs.getBigDecimal("total_amount"))
+            .status(rs.getShort("status"))
+            .createdAt(rs.getObject("created_at", LocalDateTime.class))
+            .paidAt(rs.getObject("paid_at", LocalDateTime.class))
+            .shippedAt(rs.getObject("shipped_at", LocalDateTime.class))
+            .completedAt(rs.getObject("completed_at", LocalDateTime.class))
+            .cancelledAt(rs.getObject("cancelled_at", LocalDateTime.class))
+            .buyerRemark(rs.getString("buyer_remark"))
+            .sellerRemark(rs.getString("seller_remark"))
+            .build();
+
+    // 列表查询只读取列表页需要的列，用户名在同一条查询中 JOIN 取出
+    private static final String SUMMARY_SELECT =
+            "SELECT o.id, o.order_no, o.product_id, o.product_title, o.product_image, o.product_price, " +
+            "o.quantity, o.total_amount, o.status, o.buyer_id, b.username AS buyer_name, " +
+            "o.seller_id, s.username AS seller_name, " +
+            "o.created_at, o.paid_at, o.shipped_at, o.completed_at, o.cancelled_at " +
+            "FROM orders o " +
+            "LEFT JOIN user_accounts b ON b.id = o.buyer_id " +
+            "LEFT JOIN user_accounts s ON s.id = o.seller_id ";
+
+    private static final RowMapper<OrderSummary> SUMMARY_MAPPER = (rs, rowNum) -> new OrderSummary(
+            rs.getLong("id"),
+            rs.getString("order_no"),
+            rs.getLong("product_id"),
+            rs.getString("product_title"),
+            rs.getString("product_image"),
+            rs.getBigDecimal("product_price"),
+            rs.getInt("quantity"),
+            rs.getBigDecimal("total_amount"),
+            rs.getShort("status"),
+            rs.getLong("buyer_id"),
+            rs.getString("buyer_name"),
+            rs.getLong("seller_id"),
+            rs.getString("seller_name"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("paid_at", LocalDateTime.class),
+            rs.getObject("shipped_at", LocalDateTime.class),
+            rs.getObject("completed_at", LocalDateTime.class),
+            rs.getObject("cancelled_at", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Order> transition(Long orderId, Long userId, OrderTransition transition) {
+        List<Object> args = new ArrayList<>();
+        args.add(transition.getTo());
+        args.add(orderId);
+        args.add(transition.getFrom());
+        args.add(userId);
+        if (transition.getActor() == OrderTransition.Actor.PARTY) {
+            args.add(userId);
+        }
+        if (transition.affectsProduct()) {
+            args.add(transition.getProductTo());
+            args.add(transition.getProductFrom());
+        }
+
+        List<Order> updated = jdbcTemplate.query(SQL.get(transition), ORDER_MAPPER, args.toArray());
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public List<OrderSummary> findBuyerSummaries(Long buyerId, Short status,
+                                                 LocalDateTime afterCreatedAt, Long afterId, long offset, int limit) {
+        return findSummaries("o.buyer_id", buyerId, status, afterCreatedAt, afterId, offset, limit);
+    }
+
+    @Override
+    public List<OrderSummary> findSellerSummaries(Long sellerId, Short status,
+                                                  LocalDateTime afterCreatedAt, Long afterId, long offset, int limit) {
+        return findSummaries("o.seller_id", sellerId, status, afterCreatedAt, afterId, offset, limit);
+    }
+
+    /**
+     * 条件与排序和 (buyer_id, created_at DESC, id DESC) / (seller_id[, status], created_at DESC, id DESC)
+     * 索引的列顺序一致，行值比较 (created_at, id) < (?, ?) 直接定位到索引中的起点，不需要排序
+     */
+    private List<OrderSummary> findSummaries(String partyColumn, Long userId, Short status,
+                                             LocalDateTime afterCreatedAt, Long afterId, long offset, int limit) {
+        StringBuilder sql = new StringBuilder(SUMMARY_SELECT).append("WHERE ").append(partyColumn).append(" = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        if (status != null) {
+            sql.append(" AND o.status = ?");
+            args.add(status);
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            sql.append(" AND (o.created_at, o.id) < (?, ?)");
+            args.add(afterCreatedAt);
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY o.created_at DESC, o.id DESC LIMIT ?");
+        args.add(limit);
+        if (offset > 0) {
+            sql.append(" OFFSET ?");
+            args.add(offset);
+        }
+        return jdbcTemplate.query(sql.toString(), SUMMARY_MAPPER, args.toArray());
+    }
+
+    private static String buildSql(OrderTransition transition) {
+        String actor = switch (transition.getActor()) {
+            case BUYER -> "buyer_id = ?";
+            case SELLER -> "seller_id = ?";
+            case PARTY -> "(buyer_id = ? OR seller_id = ?)";
+        };
+        String update = "UPDATE orders SET status = ?, " + transition.getTimestampColumn() + " = now() " +
+                "WHERE id = ? AND status = ? AND " + actor + " RETURNING " + RETURNING_COLUMNS;
+        if (!transition.affectsProduct()) {
+            return update;
+        }
+        // 订单和商品状态一条语句完成
+        return "WITH o AS (" + update + "), " +
+                "p AS (UPDATE products SET status = ?, updated_at = now() " +
+                "      FROM o WHERE products.id = o.product_id AND products.status = ?) " +
+                "SELECT " + RETURNING_COLUMNS + " FROM o";
+    }
+}
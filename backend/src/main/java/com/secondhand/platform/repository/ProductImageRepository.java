@@ -2,14 +2,22 @@ package com.secondhand.platform.repository;
 
 import com.secondhand.platform.entity.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
+public interface ProductImageRepository extends JpaRepository<ProductImage, Long>, ProductImageRepositoryCustom {
 
     List<ProductImage> findByProductIdOrderBySortOrder(Long productId);
 
-    void deleteByProductId(Long productId);
+    /**
+     * 一条 DELETE 删除商品的全部图片，不逐个加载实体；执行前后同步持久化上下文
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ProductImage i WHERE i.productId = :productId")
+    int deleteAllByProductId(@Param("productId") Long productId);
 }
@@ -0,0 +1,11 @@
+package com.secondhand.platform.repository;
+
+import java.util.List;
+
+public interface ProductImageRepositoryCustom {
+
+    /**
+     * 按列表顺序一次插入商品的全部图片，sort_order 从 0 开始
+     */
+    void insertAll(Long productId, List<String> imageUrls);
+}
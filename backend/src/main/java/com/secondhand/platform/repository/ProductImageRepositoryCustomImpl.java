@@ -0,0 +1,32 @@
+package com.secondhand.platform.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ProductImageRepositoryCustomImpl implements ProductImageRepositoryCustom {
+
+    // 图片 URL 作为数组参数展开，多张图片只需一条 INSERT
+    private static final String INSERT_ALL_SQL =
+            "INSERT INTO product_images (product_id, image_url, sort_order, created_at) " +
+            "SELECT ?, u.url, u.ord - 1, now() " +
+            "FROM unnest(?::text[]) WITH ORDINALITY AS u(url, ord)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(Long productId, List<String> imageUrls) {
+        if (imageUrls.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_ALL_SQL);
+            ps.setLong(1, productId);
+            ps.setArray(2, con.createArrayOf("text", imageUrls.toArray()));
+            return ps;
+        });
+    }
+}
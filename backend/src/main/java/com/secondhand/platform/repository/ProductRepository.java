@@ -1,5 +1,6 @@
 package com.secondhand.platform.repository;
 
+import com.secondhand.platform.dto.ProductSummary;
 import com.secondhand.platform.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -10,11 +11,22 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
+
+    /**
+     * 列表投影查询的公共 SELECT 部分，见 {@link ProductSummary}
+     */
+    String SUMMARY_SELECT = "SELECT new com.secondhand.platform.dto.ProductSummary(" +
+            "p.id, p.sellerId, s.username, p.title, p.coverUrl, p.price, p.originalPrice, " +
+            "p.categoryId, c.name, p.condition, p.status, p.location, p.viewCount, p.createdAt, p.updatedAt) " +
+            "FROM Product p LEFT JOIN p.seller s LEFT JOIN p.category c ";
 
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.seller LEFT JOIN FETCH p.category WHERE p.id = :id")
     Optional<Product> findByIdWithDetails(@Param("id") Long id);
@@ -22,37 +34,58 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.seller LEFT JOIN FETCH p.category LEFT JOIN FETCH p.images WHERE p.id = :id")
     Optional<Product> findByIdWithAllDetails(@Param("id") Long id);
 
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<ProductSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p FROM Product p WHERE p.status = 1 AND p.id > :afterId ORDER BY p.id")
+    List<Product> findActiveAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
     Page<Product> findBySellerIdAndStatusNot(Long sellerId, Short status, Pageable pageable);
 
     Page<Product> findBySellerId(Long sellerId, Pageable pageable);
 
     Page<Product> findByStatus(Short status, Pageable pageable);
 
-    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.seller WHERE p.status = :status")
-    Page<Product> findByStatusWithSeller(@Param("status") Short status, Pageable pageable);
-
     Page<Product> findByCategoryIdAndStatus(Integer categoryId, Short status, Pageable pageable);
 
-    @Query("SELECT p FROM Product p WHERE p.status = 1 AND " +
-           "(LOWER(p.searchText) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<Product> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
-
-    @Query(value = "SELECT * FROM products WHERE status = 1 AND " +
-                   "search_text ILIKE '%' || :keyword || '%'",
-           countQuery = "SELECT COUNT(*) FROM products WHERE status = 1 AND " +
-                        "search_text ILIKE '%' || :keyword || '%'",
-           nativeQuery = true)
-    Page<Product> searchByKeywordNative(@Param("keyword") String keyword, Pageable pageable);
-
-    @Modifying
-    @Query("UPDATE Product p SET p.viewCount = p.viewCount + 1 WHERE p.id = :id")
-    void incrementViewCount(@Param("id") Long id);
-
     @Modifying
-    @Query("UPDATE Product p SET p.status = :status WHERE p.id = :id AND p.sellerId = :sellerId")
+    @Query("UPDATE Product p SET p.status = :status, p.updatedAt = LOCAL DATETIME " +
+            "WHERE p.id = :id AND p.sellerId = :sellerId AND p.status <> 3")
     int updateStatus(@Param("id") Long id, @Param("sellerId") Long sellerId, @Param("status") Short status);
 
-    List<Product> findTop10ByStatusOrderByCreatedAtDesc(Short status);
-
-    List<Product> findTop10ByStatusOrderByViewCountDesc(Short status);
+    /**
+     * 条件状态迁移：只有当前状态等于 from 时才更新，返回 0 表示状态已被其他请求改变。
+     * 行被其他事务锁住时不等待（SKIP LOCKED）直接返回 0：并发下单时只有拿到行锁的请求能继续，
+     * 其余请求立即失败，不必等先到者的订单事务提交后再重新检查
+     */
+    @Modifying
+    @Query(value = "UPDATE products SET status = :to, updated_at = now() " +
+            "WHERE id = (SELECT id FROM products WHERE id = :id AND status = :from FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int transitionStatus(@Param("id") Long id, @Param("from") Short from, @Param("to") Short to);
+
+    /**
+     * 卖家编辑商品信息：只写可编辑的列，不覆盖状态和浏览量；已删除或已被订单预留时返回 0。
+     * 条件更新不加读锁，编辑不会阻塞下单
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.title = :title, p.coverUrl = :coverUrl, p.description = :description, " +
+            "p.price = :price, p.originalPrice = :originalPrice, p.categoryId = :categoryId, " +
+            "p.condition = :condition, p.location = :location, p.searchText = :searchText, " +
+            "p.updatedAt = LOCAL DATETIME " +
+            "WHERE p.id = :id AND p.sellerId = :sellerId AND p.status <> -1 AND p.status <> 3")
+    int updateDetails(@Param("id") Long id, @Param("sellerId") Long sellerId, @Param("title") String title,
+                      @Param("coverUrl") String coverUrl, @Param("description") String description,
+                      @Param("price") BigDecimal price, @Param("originalPrice") BigDecimal originalPrice,
+                      @Param("categoryId") Integer categoryId, @Param("condition") Short condition,
+                      @Param("location") String location, @Param("searchText") String searchText);
+
+    @Query(SUMMARY_SELECT + "WHERE p.status = 1 ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductSummary> findLatestActive(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.status = 1 ORDER BY p.viewCount DESC, p.id DESC")
+    List<ProductSummary> findHotActive(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.status = 1 AND p.categoryId IN :categoryIds ORDER BY p.viewCount DESC, p.id DESC")
+    List<ProductSummary> findHotActiveByCategoryIn(@Param("categoryIds") Collection<Integer> categoryIds, Pageable pageable);
 }
@@ -0,0 +1,16 @@
+package com.secondhand.platform.repository;
+
+import com.secondhand.platform.dto.ProductSummary;
+import com.secondhand.platform.entity.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * 按条件和排序取一段列表投影，不附带 count 查询
+     */
+    List<ProductSummary> findSummaries(Specification<Product> spec, Sort sort, long offset, int limit);
+}
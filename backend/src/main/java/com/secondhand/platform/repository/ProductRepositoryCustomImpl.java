@@ -0,0 +1,56 @@
+package com.secondhand.platform.repository;
+
+import com.secondhand.platform.dto.ProductSummary;
+import com.secondhand.platform.entity.Category;
+import com.secondhand.platform.entity.Product;
+import com.secondhand.platform.entity.UserAccount;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductSummary> findSummaries(Specification<Product> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<Product> root = query.from(Product.class);
+        Join<Product, UserAccount> seller = root.join("seller", JoinType.LEFT);
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.construct(ProductSummary.class,
+                        root.get("id"),
+                        root.get("sellerId"),
+                        seller.get("username"),
+                        root.get("title"),
+                        root.get("coverUrl"),
+                        root.get("price"),
+                        root.get("originalPrice"),
+                        root.get("categoryId"),
+                        category.get("name"),
+                        root.get("condition"),
+                        root.get("status"),
+                        root.get("location"),
+                        root.get("viewCount"),
+                        root.get("createdAt"),
+                        root.get("updatedAt")))
+                .orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
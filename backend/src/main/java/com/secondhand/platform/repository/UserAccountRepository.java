@@ -2,12 +2,17 @@ package com.secondhand.platform.repository;
 
 import com.secondhand.platform.entity.UserAccount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
-public interface UserAccountRepository extends JpaRepository<UserAccount, Long> {
+public interface UserAccountRepository extends JpaRepository<UserAccount, Long>, UserAccountRepositoryCustom {
 
     Optional<UserAccount> findByUsername(String username);
 
@@ -20,4 +25,45 @@ public interface UserAccountRepository extends JpaRepository<UserAccount, Long>
     boolean existsByEmail(String email);
 
     boolean existsByPhone(String phone);
+
+    /**
+     * 注册前一次查出用户名、邮箱、手机号各自是否已被占用；phone 为 null 时不参与比较
+     */
+    @Query(value = "SELECT COALESCE(bool_or(username = :username), false) AS \"usernameTaken\", " +
+            "COALESCE(bool_or(email = :email), false) AS \"emailTaken\", " +
+            "COALESCE(bool_or(phone = :phone), false) AS \"phoneTaken\" " +
+            "FROM user_accounts WHERE username = :username OR email = :email OR phone = :phone",
+            nativeQuery = true)
+    TakenView findTaken(@Param("username") String username, @Param("email") String email,
+                        @Param("phone") String phone);
+
+    /**
+     * 只在哈希未被并发修改时写入，避免覆盖同时进行的改密
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserAccount u SET u.passwordHash = :newHash, u.passwordAlgo = :algo " +
+            "WHERE u.id = :id AND u.passwordHash = :oldHash")
+    int updatePasswordHashIfUnchanged(@Param("id") Long id, @Param("oldHash") String oldHash,
+                                      @Param("newHash") String newHash, @Param("algo") String algo);
+
+    /**
+     * 改密：写入新哈希和令牌吊销时间；旧哈希已被并发修改时返回 0。
+     * 批量更新不触发 @PreUpdate，updated_at 在语句中设置，其他节点按它增量加载吊销时间
+     */
+    @Modifying
+    @Query("UPDATE UserAccount u SET u.passwordHash = :newHash, u.passwordAlgo = :algo, " +
+            "u.tokensRevokedBefore = :revokedBefore, u.updatedAt = :revokedBefore " +
+            "WHERE u.id = :id AND u.passwordHash = :oldHash")
+    int changePasswordIfUnchanged(@Param("id") Long id, @Param("oldHash") String oldHash,
+                                  @Param("newHash") String newHash, @Param("algo") String algo,
+                                  @Param("revokedBefore") LocalDateTime revokedBefore);
+
+    interface TakenView {
+        boolean getUsernameTaken();
+
+        boolean getEmailTaken();
+
+        boolean getPhoneTaken();
+    }
 }
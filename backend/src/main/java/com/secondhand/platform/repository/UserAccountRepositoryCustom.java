@@ -0,0 +1,11 @@
+package com.secondhand.platform.repository;
+
+import com.secondhand.platform.entity.UserAccount;
+
+public interface UserAccountRepositoryCustom {
+
+    /**
+     * 一条语句同时插入账号和默认资料，回填账号的 id 和创建时间
+     */
+    UserAccount insertWithProfile(UserAccount account, String nickname);
+}
@@ -0,0 +1,35 @@
+package com.secondhand.platform.repository;
+
+import com.secondhand.platform.entity.UserAccount;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class UserAccountRepositoryCustomImpl implements UserAccountRepositoryCustom {
+
+    private static final String INSERT_WITH_PROFILE_SQL =
+            "WITH account AS (" +
+            "  INSERT INTO user_accounts (username, email, phone, password_hash, password_algo, status, created_at, updated_at) " +
+            "  VALUES (?, ?, ?, ?, ?, ?, now(), now()) " +
+            "  RETURNING id, created_at, updated_at" +
+            "), profile AS (" +
+            "  INSERT INTO user_profiles (user_id, nickname, updated_at) " +
+            "  SELECT id, ?, now() FROM account" +
+            ") " +
+            "SELECT id, created_at, updated_at FROM account";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public UserAccount insertWithProfile(UserAccount account, String nickname) {
+        jdbcTemplate.query(INSERT_WITH_PROFILE_SQL, rs -> {
+            account.setId(rs.getLong(1));
+            account.setCreatedAt(rs.getObject(2, LocalDateTime.class));
+            account.setUpdatedAt(rs.getObject(3, LocalDateTime.class));
+        }, account.getUsername(), account.getEmail(), account.getPhone(), account.getPasswordHash(),
+                account.getPasswordAlgo(), account.getStatus(), nickname);
+        return account;
+    }
+}
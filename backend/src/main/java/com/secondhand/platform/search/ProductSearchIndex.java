@@ -0,0 +1,762 @@
+package com.secondhand.platform.search;
+
+import com.secondhand.platform.entity.Product;
+import com.secondhand.platform.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * 商品内存倒排索引
+ * 对上架商品的标题和描述建立倒排表，关键词 + 分类/价格/成色过滤在内存中完成，
+ * 只返回排好序的一页商品ID，再由调用方按ID回表加载；
+ * 写入由 {@link SearchIndexUpdater} 在事务提交后批量应用
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final String CATEGORY_TERM_PREFIX = "\u0000c:";
+    private static final String TITLE_TERM_PREFIX = "\u0000t:";
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ProductRepository productRepository;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // 重建和压缩互斥，二者都不与自身并发
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
+
+    // 以下结构和数组由写锁保护，压缩时整体替换
+    // 词项 -> 有序文档序号列表
+    private Map<String, PostingList> postings = new HashMap<>();
+    // 词项ID -> 倒排表；空出的ID回收复用
+    private PostingList[] postingsByTermId = new PostingList[INITIAL_CAPACITY];
+    private ArrayDeque<Integer> freeTermIds = new ArrayDeque<>();
+    private int nextTermId;
+    private Map<Long, Integer> ordinalById = new HashMap<>();
+    private BitSet live = new BitSet();
+
+    // 按文档序号存放的过滤/排序字段
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private long[] priceCents = new long[INITIAL_CAPACITY];
+    private short[] conditions = new short[INITIAL_CAPACITY];
+    private long[] createdAtMillis = new long[INITIAL_CAPACITY];
+    private int[] viewCounts = new int[INITIAL_CAPACITY];
+    // 文档写入的全部词项ID（含标题、分类前缀），更新时据此从旧词项的倒排表中移除；
+    // 只存词项ID，不为每个文档保留词项字符串
+    private int[][] termIdsByOrd = new int[INITIAL_CAPACITY][];
+    private int size;
+    private int tombstones;
+
+    private volatile boolean ready;
+
+    // 重建期间由增量更新写入过的商品ID（写锁保护）；这些商品以增量读到的状态为准，
+    // 重建批次可能在变更之前读出，应用时跳过，避免把已下架或旧版本的商品写回索引
+    private Set<Long> changedDuringRebuild;
+
+    // 压缩期间到达的写入（写锁保护）：索引结构在压缩期间保持不变，写入排队，
+    // 新结构替换旧结构后按顺序重放；不在压缩时为 null
+    private List<Runnable> deferredDuringCompaction;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("Product search index is disabled, keyword search falls back to the database");
+            return;
+        }
+
+        maintenanceLock.lock();
+        try {
+            rebuildLocked();
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    private void rebuildLocked() {
+        long start = System.currentTimeMillis();
+        long afterId = 0;
+        int loaded = 0;
+        int skipped = 0;
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            while (true) {
+                List<Product> batch = productRepository.findActiveAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                lock.writeLock().lock();
+                try {
+                    for (Product product : batch) {
+                        if (changedDuringRebuild.contains(product.getId())) {
+                            skipped++;
+                        } else {
+                            upsertLocked(product);
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                afterId = batch.get(batch.size() - 1).getId();
+                loaded += batch.size();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        if (skipped > 0) {
+            log.info("Product search index rebuild skipped {} products updated concurrently", skipped);
+        }
+        ready = true;
+        log.info("Product search index built: {} products, {} terms in {} ms",
+                loaded, termCount(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * 判断索引能否处理该查询：地点模糊匹配不在索引中，关键词必须能切出词项
+     */
+    public boolean canServe(String keyword, String location) {
+        if (!isReady() || StringUtils.hasText(location)) {
+            return false;
+        }
+        return !StringUtils.hasText(keyword) || !SearchTokenizer.tokenizeQuery(keyword).isEmpty();
+    }
+
+    /**
+     * 批量应用增量：新增或更新的商品重新写入倒排表，下架/售出/删除的商品打上墓碑标记
+     */
+    public void apply(List<Product> upserts, List<Long> removals) {
+        lock.writeLock().lock();
+        try {
+            if (deferredDuringCompaction != null) {
+                List<Product> deferredUpserts = List.copyOf(upserts);
+                List<Long> deferredRemovals = List.copyOf(removals);
+                deferredDuringCompaction.add(() -> applyLocked(deferredUpserts, deferredRemovals));
+                return;
+            }
+            applyLocked(upserts, removals);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(List<Product> upserts, List<Long> removals) {
+        for (Product product : upserts) {
+            upsertLocked(product);
+        }
+        for (Long productId : removals) {
+            tombstoneLocked(productId);
+        }
+        if (changedDuringRebuild != null) {
+            upserts.forEach(product -> changedDuringRebuild.add(product.getId()));
+            changedDuringRebuild.addAll(removals);
+        }
+    }
+
+    /**
+     * 同步浏览量写回后的最新值，供按浏览量排序使用
+     */
+    public void updateViewCounts(Map<Long, Integer> counts) {
+        lock.writeLock().lock();
+        try {
+            if (deferredDuringCompaction != null) {
+                Map<Long, Integer> deferredCounts = Map.copyOf(counts);
+                deferredDuringCompaction.add(() -> updateViewCountsLocked(deferredCounts));
+                return;
+            }
+            updateViewCountsLocked(counts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void updateViewCountsLocked(Map<Long, Integer> counts) {
+        counts.forEach((productId, viewCount) -> {
+            Integer ordinal = ordinalById.get(productId);
+            if (ordinal != null) {
+                viewCounts[ordinal] = viewCount;
+            }
+        });
+    }
+
+    /**
+     * 倒排表中已失效序号占比
+     */
+    public double tombstoneRatio() {
+        lock.readLock().lock();
+        try {
+            return size == 0 ? 0 : (double) tombstones / size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 回收失效序号：存活文档按原顺序重新编号为 0..n-1，倒排表和按序号存放的数组同步压缩，
+     * 压缩后 size 等于存活文档数。新序号随旧序号单调递增，倒排表无需重新排序。
+     * 采用写时复制：压缩期间索引结构保持不变，新的倒排表和数组在锁外构建，搜索照常进行；
+     * 增量写入在此期间排队，只在替换结构和重放排队写入时短暂持有写锁。
+     * 压缩期间的变更要等替换后才可见，构建期间新旧两份倒排表同时占用内存。
+     * 重建进行中时跳过。返回回收的序号数
+     */
+    public int compact() {
+        if (!maintenanceLock.tryLock()) {
+            return 0;
+        }
+        try {
+            lock.writeLock().lock();
+            try {
+                if (tombstones == 0 || size == live.cardinality()) {
+                    tombstones = 0;
+                    return 0;
+                }
+                deferredDuringCompaction = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            // 写入已改为排队，以下读取的结构不会再变化；在写锁下设置排队标记，之前的写入对本线程可见
+            Compacted compacted = null;
+            try {
+                compacted = buildCompacted();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (compacted != null) {
+                        install(compacted);
+                    }
+                    List<Runnable> deferred = deferredDuringCompaction;
+                    deferredDuringCompaction = null;
+                    deferred.forEach(Runnable::run);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            return compacted.reclaimed();
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    private Compacted buildCompacted() {
+        int[] remap = new int[size];
+        int next = 0;
+        for (int ord = 0; ord < size; ord++) {
+            remap[ord] = live.get(ord) ? next++ : -1;
+        }
+
+        Map<String, PostingList> newPostings = new HashMap<>(postings.size() * 2);
+        PostingList[] newPostingsByTermId = new PostingList[postingsByTermId.length];
+        postings.forEach((term, list) -> {
+            PostingList remapped = list.remapped(remap);
+            if (remapped.size() > 0) {
+                newPostings.put(term, remapped);
+                newPostingsByTermId[remapped.termId()] = remapped;
+            }
+        });
+        // 只被失效文档引用的词项在压缩后为空，ID 一并回收
+        ArrayDeque<Integer> newFreeTermIds = new ArrayDeque<>();
+        for (int termId = 0; termId < nextTermId; termId++) {
+            if (newPostingsByTermId[termId] == null) {
+                newFreeTermIds.push(termId);
+            }
+        }
+
+        int capacity = Math.max(INITIAL_CAPACITY, next * 2);
+        long[] newProductIds = new long[capacity];
+        long[] newPriceCents = new long[capacity];
+        short[] newConditions = new short[capacity];
+        long[] newCreatedAtMillis = new long[capacity];
+        int[] newViewCounts = new int[capacity];
+        int[][] newTermIdsByOrd = new int[capacity][];
+        for (int ord = 0; ord < size; ord++) {
+            int target = remap[ord];
+            if (target >= 0) {
+                newProductIds[target] = productIds[ord];
+                newPriceCents[target] = priceCents[ord];
+                newConditions[target] = conditions[ord];
+                newCreatedAtMillis[target] = createdAtMillis[ord];
+                newViewCounts[target] = viewCounts[ord];
+                newTermIdsByOrd[target] = termIdsByOrd[ord];
+            }
+        }
+
+        Map<Long, Integer> newOrdinalById = new HashMap<>(ordinalById.size() * 2);
+        ordinalById.forEach((productId, ord) -> newOrdinalById.put(productId, remap[ord]));
+        BitSet newLive = new BitSet(next);
+        newLive.set(0, next);
+
+        return new Compacted(newPostings, newPostingsByTermId, newFreeTermIds, newOrdinalById, newLive,
+                newProductIds, newPriceCents, newConditions, newCreatedAtMillis, newViewCounts, newTermIdsByOrd,
+                next, size - next);
+    }
+
+    private void install(Compacted compacted) {
+        postings = compacted.postings();
+        postingsByTermId = compacted.postingsByTermId();
+        freeTermIds = compacted.freeTermIds();
+        ordinalById = compacted.ordinalById();
+        live = compacted.live();
+        productIds = compacted.productIds();
+        priceCents = compacted.priceCents();
+        conditions = compacted.conditions();
+        createdAtMillis = compacted.createdAtMillis();
+        viewCounts = compacted.viewCounts();
+        termIdsByOrd = compacted.termIdsByOrd();
+        size = compacted.size();
+        tombstones = 0;
+    }
+
+    private record Compacted(Map<String, PostingList> postings, PostingList[] postingsByTermId,
+                             ArrayDeque<Integer> freeTermIds, Map<Long, Integer> ordinalById, BitSet live,
+                             long[] productIds, long[] priceCents, short[] conditions, long[] createdAtMillis,
+                             int[] viewCounts, int[][] termIdsByOrd, int size, int reclaimed) {
+    }
+
+    public SearchHits search(SearchQuery query) {
+        Set<String> terms = SearchTokenizer.tokenizeQuery(query.getKeyword());
+        int k = query.getOffset() + query.getLimit();
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> required = new ArrayList<>();
+            List<PostingList> titleLists = new ArrayList<>();
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return new SearchHits(List.of(), 0, false);
+                }
+                required.add(list);
+                PostingList titleList = postings.get(TITLE_TERM_PREFIX + term);
+                if (titleList != null) {
+                    titleLists.add(titleList);
+                }
+            }
+            if (query.getCategoryIds() != null && !query.getCategoryIds().isEmpty()) {
+                // 父分类展开后的多个分类取并集
+                List<PostingList> categoryLists = new ArrayList<>();
+                for (Integer categoryId : query.getCategoryIds()) {
+                    PostingList list = postings.get(CATEGORY_TERM_PREFIX + categoryId);
+                    if (list != null) {
+                        categoryLists.add(list);
+                    }
+                }
+                if (categoryLists.isEmpty()) {
+                    return new SearchHits(List.of(), 0, false);
+                }
+                required.add(PostingList.union(categoryLists));
+            }
+            required.sort(Comparator.comparingInt(PostingList::size));
+
+            long minCents = query.getMinPrice() != null ? toCents(query.getMinPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+            long maxCents = query.getMaxPrice() != null ? toCents(query.getMaxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+            int minCondition = query.getMinCondition() != null ? query.getMinCondition() : Integer.MIN_VALUE;
+
+            Comparator<Integer> best = comparator(query, titleLists);
+            IntPredicate afterCursor = seekFilter(query);
+            PriorityQueue<Integer> top = new PriorityQueue<>(Math.max(1, k + 1), best.reversed());
+            long total = 0;
+            long remaining = 0;
+
+            if (required.isEmpty()) {
+                for (int ord = live.nextSetBit(0); ord >= 0; ord = live.nextSetBit(ord + 1)) {
+                    if (matchesFilters(ord, minCents, maxCents, minCondition)) {
+                        total++;
+                        if (afterCursor.test(ord)) {
+                            remaining++;
+                            offer(top, ord, k);
+                        }
+                    }
+                }
+            } else {
+                // 从最短的倒排表出发，其余倒排表二分查找求交集
+                PostingList driver = required.get(0);
+                candidates:
+                for (int i = 0; i < driver.size(); i++) {
+                    int ord = driver.get(i);
+                    if (!live.get(ord)) {
+                        continue;
+                    }
+                    for (int j = 1; j < required.size(); j++) {
+                        if (!required.get(j).contains(ord)) {
+                            continue candidates;
+                        }
+                    }
+                    if (matchesFilters(ord, minCents, maxCents, minCondition)) {
+                        total++;
+                        if (afterCursor.test(ord)) {
+                            remaining++;
+                            offer(top, ord, k);
+                        }
+                    }
+                }
+            }
+
+            List<Long> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(productIds[top.poll()]);
+            }
+            Collections.reverse(ranked);
+
+            List<Long> page = query.getOffset() >= ranked.size()
+                    ? List.of()
+                    : List.copyOf(ranked.subList(query.getOffset(), ranked.size()));
+            return new SearchHits(page, total, remaining > k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void upsertLocked(Product product) {
+        if (product.getStatus() == null || product.getStatus() != 1) {
+            tombstoneLocked(product.getId());
+            return;
+        }
+
+        Set<String> terms = documentTerms(product);
+        Integer existing = ordinalById.get(product.getId());
+        int ord;
+        if (existing != null) {
+            // 已在索引中的商品沿用原序号，只调整新增和删除的词项
+            ord = existing;
+            Set<String> added = new HashSet<>(terms);
+            for (int termId : termIdsByOrd[ord]) {
+                PostingList list = postingsByTermId[termId];
+                if (!added.remove(list.term())) {
+                    list.remove(ord);
+                    releaseIfEmpty(list);
+                }
+            }
+            for (String term : added) {
+                postingFor(term).insert(ord);
+            }
+        } else {
+            // 新文档分配新的序号，倒排表按序号递增追加
+            ord = size++;
+            ensureCapacity(size);
+            live.set(ord);
+            ordinalById.put(product.getId(), ord);
+            for (String term : terms) {
+                postingFor(term).add(ord);
+            }
+        }
+
+        int[] termIds = new int[terms.size()];
+        int i = 0;
+        for (String term : terms) {
+            termIds[i++] = postings.get(term).termId();
+        }
+        termIdsByOrd[ord] = termIds;
+        productIds[ord] = product.getId();
+        priceCents[ord] = product.getPrice() != null ? toCents(product.getPrice(), RoundingMode.HALF_UP) : 0;
+        conditions[ord] = product.getCondition() != null ? product.getCondition() : 0;
+        createdAtMillis[ord] = product.getCreatedAt() != null
+                ? product.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli()
+                : 0;
+        viewCounts[ord] = product.getViewCount() != null ? product.getViewCount() : 0;
+    }
+
+    private PostingList postingFor(String term) {
+        PostingList list = postings.get(term);
+        if (list != null) {
+            return list;
+        }
+        int termId = freeTermIds.isEmpty() ? nextTermId++ : freeTermIds.pop();
+        if (termId >= postingsByTermId.length) {
+            postingsByTermId = Arrays.copyOf(postingsByTermId, Math.max(termId + 1, postingsByTermId.length * 2));
+        }
+        list = new PostingList(term, termId);
+        postings.put(term, list);
+        postingsByTermId[termId] = list;
+        return list;
+    }
+
+    /**
+     * 倒排表为空时移除词项并回收ID；存活文档引用的词项倒排表中至少包含该文档，不会被回收
+     */
+    private void releaseIfEmpty(PostingList list) {
+        if (list.size() == 0) {
+            postings.remove(list.term());
+            postingsByTermId[list.termId()] = null;
+            freeTermIds.push(list.termId());
+        }
+    }
+
+    private static Set<String> documentTerms(Product product) {
+        Set<String> titleTerms = SearchTokenizer.tokenizeDocument(product.getTitle());
+        Set<String> terms = new HashSet<>(titleTerms);
+        terms.addAll(SearchTokenizer.tokenizeDocument(product.getDescription()));
+        for (String term : titleTerms) {
+            terms.add(TITLE_TERM_PREFIX + term);
+        }
+        if (product.getCategoryId() != null) {
+            terms.add(CATEGORY_TERM_PREFIX + product.getCategoryId());
+        }
+        return terms;
+    }
+
+    private void tombstoneLocked(Long productId) {
+        Integer ordinal = ordinalById.remove(productId);
+        if (ordinal != null) {
+            live.clear(ordinal);
+            termIdsByOrd[ordinal] = null;
+            tombstones++;
+        }
+    }
+
+    private boolean matchesFilters(int ord, long minCents, long maxCents, int minCondition) {
+        return priceCents[ord] >= minCents
+                && priceCents[ord] <= maxCents
+                && conditions[ord] >= minCondition;
+    }
+
+    /**
+     * 键集分页：只保留排在游标之后的文档，比较规则与 comparator 的字段排序一致
+     */
+    private IntPredicate seekFilter(SearchQuery query) {
+        if (query.getAfterId() == null) {
+            return ord -> true;
+        }
+        long afterId = query.getAfterId();
+        boolean ascending = query.isAscending();
+        return switch (query.getSortKey()) {
+            case PRICE -> {
+                long key = toCents((BigDecimal) query.getAfterValue(), RoundingMode.HALF_UP);
+                yield ord -> isAfter(priceCents[ord], productIds[ord], key, afterId, ascending);
+            }
+            case VIEW_COUNT -> {
+                long key = (Integer) query.getAfterValue();
+                yield ord -> isAfter(viewCounts[ord], productIds[ord], key, afterId, ascending);
+            }
+            case CREATED_AT -> {
+                long key = ((LocalDateTime) query.getAfterValue()).toInstant(ZoneOffset.UTC).toEpochMilli();
+                yield ord -> isAfter(createdAtMillis[ord], productIds[ord], key, afterId, ascending);
+            }
+            case RELEVANCE -> throw new IllegalArgumentException("Keyset paging is not supported for relevance sort");
+        };
+    }
+
+    private static boolean isAfter(long value, long id, long afterValue, long afterId, boolean ascending) {
+        int cmp = value != afterValue ? Long.compare(value, afterValue) : Long.compare(id, afterId);
+        return ascending ? cmp > 0 : cmp < 0;
+    }
+
+    private static void offer(PriorityQueue<Integer> top, int ord, int k) {
+        if (k <= 0) {
+            return;
+        }
+        top.offer(ord);
+        if (top.size() > k) {
+            top.poll();
+        }
+    }
+
+    /**
+     * 排序规则，靠前者更优；相关度按标题命中词数降序，其余按字段排序，商品ID兜底保证顺序稳定
+     */
+    private Comparator<Integer> comparator(SearchQuery query, List<PostingList> titleLists) {
+        Comparator<Integer> byId = Comparator.comparingLong(ord -> productIds[ord]);
+        return switch (query.getSortKey()) {
+            case RELEVANCE -> Comparator.<Integer>comparingInt(ord -> titleScore(ord, titleLists))
+                    .thenComparingLong(ord -> createdAtMillis[ord])
+                    .thenComparing(byId)
+                    .reversed();
+            case PRICE -> direction(Comparator.<Integer>comparingLong(ord -> priceCents[ord]).thenComparing(byId), query);
+            case VIEW_COUNT -> direction(Comparator.<Integer>comparingInt(ord -> viewCounts[ord]).thenComparing(byId), query);
+            case CREATED_AT -> direction(Comparator.<Integer>comparingLong(ord -> createdAtMillis[ord]).thenComparing(byId), query);
+        };
+    }
+
+    private static Comparator<Integer> direction(Comparator<Integer> ascending, SearchQuery query) {
+        return query.isAscending() ? ascending : ascending.reversed();
+    }
+
+    private static int titleScore(int ord, List<PostingList> titleLists) {
+        int score = 0;
+        for (PostingList list : titleLists) {
+            if (list.contains(ord)) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= productIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        conditions = Arrays.copyOf(conditions, capacity);
+        createdAtMillis = Arrays.copyOf(createdAtMillis, capacity);
+        viewCounts = Arrays.copyOf(viewCounts, capacity);
+        termIdsByOrd = Arrays.copyOf(termIdsByOrd, capacity);
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        return price.movePointRight(2).setScale(0, roundingMode).longValue();
+    }
+
+    /**
+     * 按文档序号升序存放的整型倒排表；新文档追加到末尾，已有文档更新词项时按序插入或删除
+     */
+    static final class PostingList {
+
+        // 查询时临时合并出的倒排表没有词项，termId 为 -1
+        private final String term;
+        private final int termId;
+        private int[] docs = new int[4];
+        private int size;
+
+        PostingList() {
+            this(null, -1);
+        }
+
+        PostingList(String term, int termId) {
+            this.term = term;
+            this.termId = termId;
+        }
+
+        String term() {
+            return term;
+        }
+
+        int termId() {
+            return termId;
+        }
+
+        void add(int ord) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = ord;
+        }
+
+        /**
+         * 按序插入，已存在时忽略
+         */
+        void insert(int ord) {
+            if (size == 0 || docs[size - 1] < ord) {
+                add(ord);
+                return;
+            }
+            int pos = Arrays.binarySearch(docs, 0, size, ord);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+            docs[pos] = ord;
+            size++;
+        }
+
+        /**
+         * 删除一个序号，返回剩余数量
+         */
+        int remove(int ord) {
+            int pos = Arrays.binarySearch(docs, 0, size, ord);
+            if (pos >= 0) {
+                System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+                size--;
+            }
+            return size;
+        }
+
+        int get(int index) {
+            return docs[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(int ord) {
+            return Arrays.binarySearch(docs, 0, size, ord) >= 0;
+        }
+
+        /**
+         * 多个倒排表的有序并集（结果为新建的临时倒排表）
+         */
+        static PostingList union(List<PostingList> lists) {
+            if (lists.size() == 1) {
+                return lists.get(0);
+            }
+            int total = 0;
+            for (PostingList list : lists) {
+                total += list.size;
+            }
+            PostingList merged = new PostingList();
+            merged.docs = new int[Math.max(1, total)];
+            for (PostingList list : lists) {
+                System.arraycopy(list.docs, 0, merged.docs, merged.size, list.size);
+                merged.size += list.size;
+            }
+            Arrays.sort(merged.docs, 0, merged.size);
+            return merged;
+        }
+
+        /**
+         * 按压缩后的序号生成新的倒排表，原表不变：remap 为 -1 的失效序号移除，其余替换为新序号
+         */
+        PostingList remapped(int[] remap) {
+            PostingList result = new PostingList(term, termId);
+            result.docs = new int[Math.max(4, size)];
+            for (int i = 0; i < size; i++) {
+                int target = remap[docs[i]];
+                if (target >= 0) {
+                    result.docs[result.size++] = target;
+                }
+            }
+            if (result.size < result.docs.length / 4) {
+                result.docs = Arrays.copyOf(result.docs, Math.max(4, result.size * 2));
+            }
+            return result;
+        }
+    }
+}
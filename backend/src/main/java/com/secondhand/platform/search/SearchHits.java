@@ -0,0 +1,18 @@
+package com.secondhand.platform.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 索引查询结果：当前页的商品ID（已排序）、命中总数以及之后是否还有结果
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHits {
+
+    private final List<Long> ids;
+    private final long total;
+    private final boolean hasMore;
+}
@@ -0,0 +1,103 @@
+package com.secondhand.platform.search;
+
+import com.secondhand.platform.entity.Product;
+import com.secondhand.platform.event.ProductChangedEvent;
+import com.secondhand.platform.event.ViewCountsFlushedEvent;
+import com.secondhand.platform.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索索引增量更新
+ * 事务提交后收集变更的商品ID，定时批量回表并把增量应用到倒排索引，写请求本身不承担索引开销
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchIndexUpdater {
+
+    private final ProductSearchIndex searchIndex;
+    private final ProductRepository productRepository;
+
+    @Value("${search.index.batch-size:500}")
+    private int batchSize;
+
+    @Value("${search.index.compaction-threshold:0.2}")
+    private double compactionThreshold;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pending.add(event.getProductId());
+    }
+
+    @EventListener
+    public void onViewCountsFlushed(ViewCountsFlushedEvent event) {
+        searchIndex.updateViewCounts(event.getViewCounts());
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms:200}")
+    public void flush() {
+        while (!pending.isEmpty()) {
+            List<Long> ids = new ArrayList<>(batchSize);
+            Iterator<Long> it = pending.iterator();
+            while (it.hasNext() && ids.size() < batchSize) {
+                ids.add(it.next());
+                it.remove();
+            }
+
+            try {
+                applyBatch(ids);
+            } catch (RuntimeException e) {
+                // 失败的批次放回队列，下一轮重试
+                pending.addAll(ids);
+                log.warn("Failed to apply search index batch of {} products: {}", ids.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.compaction-interval-ms:60000}")
+    public void compact() {
+        if (searchIndex.tombstoneRatio() < compactionThreshold) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int removed = searchIndex.compact();
+        log.info("Compacted product search index: {} tombstoned ordinals reclaimed in {} ms",
+                removed, System.currentTimeMillis() - start);
+    }
+
+    private void applyBatch(List<Long> ids) {
+        Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<Product> upserts = new ArrayList<>();
+        List<Long> removals = new ArrayList<>();
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product != null && product.getStatus() != null && product.getStatus() == 1) {
+                upserts.add(product);
+            } else {
+                removals.add(id);
+            }
+        }
+        searchIndex.apply(upserts, removals);
+    }
+}
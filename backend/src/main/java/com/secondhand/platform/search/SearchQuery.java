@@ -0,0 +1,41 @@
+package com.secondhand.platform.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchQuery {
+
+    public enum SortKey {
+        RELEVANCE, CREATED_AT, PRICE, VIEW_COUNT
+    }
+
+    private String keyword;
+    // 分类及其子分类ID，命中任一即可
+    private List<Integer> categoryIds;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Short minCondition;
+
+    @Builder.Default
+    private SortKey sortKey = SortKey.CREATED_AT;
+
+    private boolean ascending;
+
+    private int offset;
+
+    @Builder.Default
+    private int limit = 20;
+
+    // 键集分页起点：上一页最后一条的排序键（LocalDateTime / BigDecimal / Integer）和商品ID，不支持相关度排序
+    private Object afterValue;
+    private Long afterId;
+}
@@ -0,0 +1,93 @@
+package com.secondhand.platform.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 商品搜索分词器
+ * 中日韩文字输出单字 + 二元组 (bigram)，拉丁字母和数字按单词切分
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 文档分词：CJK 连续片段同时输出单字和二元组，保证单字查询和多字查询都能命中
+     */
+    public static Set<String> tokenizeDocument(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 查询分词：CJK 片段长度为 1 时用单字，否则只用二元组
+     */
+    public static Set<String> tokenizeQuery(String text) {
+        return tokenize(text, false);
+    }
+
+    private static Set<String> tokenize(String text, boolean document) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        // NFKC 折叠全角字符，统一小写
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+
+        StringBuilder word = new StringBuilder();
+        StringBuilder cjk = new StringBuilder();
+        int i = 0;
+        while (i < normalized.length()) {
+            int cp = normalized.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (isCjk(cp)) {
+                flushWord(word, tokens);
+                cjk.appendCodePoint(cp);
+            } else if (Character.isLetterOrDigit(cp)) {
+                flushCjk(cjk, tokens, document);
+                word.appendCodePoint(cp);
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjk, tokens, document);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjk, tokens, document);
+        return tokens;
+    }
+
+    private static void flushWord(StringBuilder word, Set<String> tokens) {
+        if (!word.isEmpty()) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(StringBuilder run, Set<String> tokens, boolean document) {
+        if (run.isEmpty()) {
+            return;
+        }
+        int[] cps = run.codePoints().toArray();
+        if (document || cps.length == 1) {
+            for (int cp : cps) {
+                tokens.add(new String(Character.toChars(cp)));
+            }
+        }
+        for (int j = 0; j + 1 < cps.length; j++) {
+            tokens.add(new String(cps, j, 2));
+        }
+        run.setLength(0);
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -1,17 +1,78 @@
 package com.secondhand.platform.security;
 
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+/**
+ * Argon2id 密码编码器
+ * 参数来自 password.argon2.*；开启 calibrate 后启动时实测一次哈希耗时，
+ * 在内存不变的前提下逐步提高迭代次数直到达到目标耗时。
+ * 参数低于当前配置的旧哈希由 upgradeEncoding 识别，登录成功后重新哈希
+ */
+@Slf4j
 @Component
 public class CustomArgon2PasswordEncoder implements PasswordEncoder {
 
-    private final Argon2PasswordEncoder delegate;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
 
-    public CustomArgon2PasswordEncoder() {
+    private final int saltLength;
+    private final int hashLength;
+    private final int parallelism;
+    private final int memoryKb;
+    private final boolean calibrate;
+    private final long targetMs;
+    private final int maxIterations;
+
+    private volatile int iterations;
+    private volatile Argon2PasswordEncoder delegate;
+
+    public CustomArgon2PasswordEncoder(
+            @Value("${password.argon2.salt-length:16}") int saltLength,
+            @Value("${password.argon2.hash-length:32}") int hashLength,
+            @Value("${password.argon2.parallelism:1}") int parallelism,
+            @Value("${password.argon2.memory-kb:65536}") int memoryKb,
+            @Value("${password.argon2.iterations:3}") int iterations,
+            @Value("${password.argon2.calibrate:false}") boolean calibrate,
+            @Value("${password.argon2.target-ms:250}") long targetMs,
+            @Value("${password.argon2.max-iterations:10}") int maxIterations) {
+        this.saltLength = saltLength;
+        this.hashLength = hashLength;
+        this.parallelism = parallelism;
+        this.memoryKb = memoryKb;
+        this.calibrate = calibrate;
+        this.targetMs = targetMs;
+        this.maxIterations = Math.max(iterations, maxIterations);
+        this.iterations = iterations;
         // saltLength, hashLength, parallelism, memory (KB), iterations
-        this.delegate = new Argon2PasswordEncoder(16, 32, 1, 65536, 3);
+        this.delegate = new Argon2PasswordEncoder(saltLength, hashLength, parallelism, memoryKb, iterations);
+    }
+
+    /**
+     * 内存占用决定哈希线程池的并发上限，校准时只调整迭代次数；
+     * 配置的迭代次数是下限，校准结果不会低于它
+     */
+    @PostConstruct
+    public void init() {
+        if (calibrate) {
+            int t = iterations;
+            Argon2PasswordEncoder candidate = delegate;
+            long elapsed = measure(candidate);
+            while (elapsed < targetMs && t < maxIterations) {
+                t++;
+                candidate = new Argon2PasswordEncoder(saltLength, hashLength, parallelism, memoryKb, t);
+                elapsed = measure(candidate);
+            }
+            iterations = t;
+            delegate = candidate;
+            log.info("Argon2 calibrated: m={} KB, t={}, p={}, {} ms per hash (target {} ms)",
+                    memoryKb, t, parallelism, elapsed, targetMs);
+        } else {
+            log.info("Argon2 parameters: m={} KB, t={}, p={}", memoryKb, iterations, parallelism);
+        }
     }
 
     @Override
@@ -23,4 +84,50 @@ public class CustomArgon2PasswordEncoder implements PasswordEncoder {
     public boolean matches(CharSequence rawPassword, String encodedPassword) {
         return delegate.matches(rawPassword, encodedPassword);
     }
+
+    /**
+     * 解析哈希串中的参数（$argon2id$v=19$m=65536,t=3,p=1$salt$hash），
+     * 非 argon2id 或任一参数低于当前配置时需要重新哈希
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        String[] parts = encodedPassword.split("\\$");
+        if (parts.length != 6 || !"argon2id".equals(parts[1])) {
+            return true;
+        }
+
+        int m = -1;
+        int t = -1;
+        int p = -1;
+        for (String param : parts[3].split(",")) {
+            int eq = param.indexOf('=');
+            if (eq < 0) {
+                return true;
+            }
+            int value;
+            try {
+                value = Integer.parseInt(param.substring(eq + 1));
+            } catch (NumberFormatException e) {
+                return true;
+            }
+            switch (param.substring(0, eq)) {
+                case "m" -> m = value;
+                case "t" -> t = value;
+                case "p" -> p = value;
+                default -> {
+                }
+            }
+        }
+        return m < memoryKb || t < iterations || p < parallelism;
+    }
+
+    private static long measure(Argon2PasswordEncoder encoder) {
+        String hash = encoder.encode(CALIBRATION_PASSWORD);
+        long start = System.nanoTime();
+        encoder.matches(CALIBRATION_PASSWORD, hash);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
 }
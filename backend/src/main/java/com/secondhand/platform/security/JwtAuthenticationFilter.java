@@ -1,6 +1,7 @@
 package com.secondhand.platform.security;
 
-import com.secondhand.platform.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +10,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -22,7 +22,8 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final RevokedUserCache revokedUserCache;
+    private final TokenRevocationStore tokenRevocationStore;
 
     @Override
     protected void doFilterInternal(
@@ -39,26 +40,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwt = authHeader.substring(7);
 
-        try {
-            if (jwtUtil.validateToken(jwt)) {
-                String username = jwtUtil.extractUsername(jwt);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            try {
+                // 验签和过期检查只做一次，用户信息直接取自令牌声明，不查询数据库
+                Claims claims = jwtUtil.parseClaims(jwt);
+                Long userId = claims.get("userId", Long.class);
+                String username = claims.getSubject();
 
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                    if (jwtUtil.validateToken(jwt, username)) {
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                    }
+                // 刷新令牌只能用于 /api/auth/refresh，不能作为访问令牌
+                if (userId != null && username != null
+                        && !jwtUtil.isRefreshToken(claims)
+                        && !revokedUserCache.isRevoked(userId, claims.getIssuedAt())
+                        && !tokenRevocationStore.isRevoked(claims.getId(), claims.getExpiration())) {
+                    UserPrincipal principal = new UserPrincipal(userId, username);
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            principal,
+                            null,
+                            principal.getAuthorities()
+                    );
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("Rejected JWT: " + e.getMessage());
             }
-        } catch (Exception e) {
-            logger.error("Cannot set user authentication: " + e.getMessage());
         }
 
         filterChain.doFilter(request, response);
@@ -3,45 +3,115 @@ package com.secondhand.platform.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    public static final String TOKEN_TYPE_CLAIM = "type";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+    // 刷新令牌所属的令牌族和代数，见 RefreshTokenFamilyStore
+    public static final String FAMILY_CLAIM = "fam";
+    public static final String GENERATION_CLAIM = "gen";
+
     @Value("${jwt.secret}")
     private String secret;
 
+    // 访问令牌有效期
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long refreshExpiration;
+
+    @Value("${jwt.verified-cache.ttl-ms:60000}")
+    private long verifiedCacheTtlMs;
+
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries;
+
+    // 密钥和解析器启动时构建一次；JwtParser 不可变，可在线程间共享
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // 已验签令牌的 SHA-256 摘要 -> 声明；命中时跳过 HMAC 验签，有效期不超过令牌自身的过期时间。
+    // 以摘要为键，缓存中不保存可直接使用的令牌原文
+    private final ConcurrentHashMap<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+    private final ReentrantLock verifiedEvictionLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
         byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    private SecretKey getSigningKey() {
+        return signingKey;
     }
 
     public String generateToken(Long userId, String username) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
-        return createToken(claims, username);
+        claims.put(TOKEN_TYPE_CLAIM, ACCESS_TOKEN);
+        return createToken(claims, username, expiration);
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    public String generateRefreshToken(Long userId, String username, String familyId, int generation) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
+        claims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN);
+        claims.put(FAMILY_CLAIM, familyId);
+        claims.put(GENERATION_CLAIM, generation);
+        return createToken(claims, username, refreshExpiration);
+    }
+
+    private String createToken(Map<String, Object> claims, String subject, long ttlMs) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttlMs))
                 .signWith(getSigningKey())
                 .compact();
     }
 
+    /**
+     * 升级前签发的令牌没有类型声明，按访问令牌处理
+     */
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
+    }
+
+    public String familyOf(Claims claims) {
+        return claims.get(FAMILY_CLAIM, String.class);
+    }
+
+    public Integer generationOf(Claims claims) {
+        return claims.get(GENERATION_CLAIM, Integer.class);
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -60,11 +130,66 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        long now = System.currentTimeMillis();
+        String key = digest(token);
+        VerifiedToken cached = verified.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.claims();
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+
+        long expiresAt = now + verifiedCacheTtlMs;
+        if (claims.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, claims.getExpiration().getTime());
+        }
+        if (verified.size() >= verifiedCacheMaxEntries) {
+            evictVerified(now);
+        }
+        verified.put(key, new VerifiedToken(claims, expiresAt));
+        return claims;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // 所有 Java 平台都必须提供 SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 缓存满时一次腾出 1/8 的容量：先移除已过期的，不够再移除任意条目。
+     * 每次清理之后要再插入 1/8 容量的令牌才会再次清理，均摊到每次插入是常数代价；
+     * 同一时间只由一个线程清理，其余线程直接插入
+     */
+    private void evictVerified(long now) {
+        if (!verifiedEvictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = verifiedCacheMaxEntries - Math.max(1, verifiedCacheMaxEntries / 8);
+            verified.values().removeIf(entry -> entry.expiresAt() <= now);
+            Iterator<String> keys = verified.keySet().iterator();
+            while (verified.size() > target && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            verifiedEvictionLock.unlock();
+        }
+    }
+
+    /**
+     * 一次解析完成验签和过期检查，失败时抛出 JwtException
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
     }
 
     private Boolean isTokenExpired(String token) {
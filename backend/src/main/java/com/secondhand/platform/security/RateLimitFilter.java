@@ -0,0 +1,250 @@
+package com.secondhand.platform.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secondhand.platform.dto.ApiResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 认证接口限流
+ * 按 rate-limit.routes 中的规则对 IP 和账号（请求体中的 username）分别做令牌桶限流，
+ * 超限直接返回 429 和 Retry-After，请求不会进入 AuthService，也就不会触发 Argon2 计算或数据库查询
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // 登录/注册请求体很小，超过该大小不解析账号，只按 IP 限流
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final List<RouteLimiter> routes = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        for (RateLimitProperties.Rule rule : properties.getRoutes()) {
+            long periodNanos = rule.getPeriod().toNanos();
+            routes.add(new RouteLimiter(
+                    rule.getMethod().toUpperCase(Locale.ROOT),
+                    rule.getPath(),
+                    rule.getIpPermits() > 0
+                            ? new RateLimiter(rule.getIpPermits(), periodNanos, properties.getMaxKeys()) : null,
+                    rule.getAccountPermits() > 0
+                            ? new RateLimiter(rule.getAccountPermits(), periodNanos, properties.getMaxKeys()) : null));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled() || find(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        RouteLimiter route = find(request);
+        long now = System.nanoTime();
+
+        if (route.byIp() != null) {
+            long wait = route.byIp().tryAcquire(clientIp(request), now);
+            if (wait > 0) {
+                reject(response, wait);
+                return;
+            }
+        }
+
+        HttpServletRequest forwarded = request;
+        if (route.byAccount() != null) {
+            CachedBodyRequest cached = CachedBodyRequest.of(request);
+            if (cached != null) {
+                forwarded = cached;
+                String username = cached.username(objectMapper);
+                if (username != null) {
+                    long wait = route.byAccount().tryAcquire(username, now);
+                    if (wait > 0) {
+                        reject(response, wait);
+                        return;
+                    }
+                }
+            }
+        }
+
+        filterChain.doFilter(forwarded, response);
+    }
+
+    /**
+     * 满桶的 key 没有保存意义，定时清理
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.cleanup-interval-ms:60000}")
+    public void cleanup() {
+        long now = System.nanoTime();
+        for (RouteLimiter route : routes) {
+            if (route.byIp() != null) {
+                route.byIp().evictExpired(now);
+            }
+            if (route.byAccount() != null) {
+                route.byAccount().evictExpired(now);
+            }
+        }
+    }
+
+    private RouteLimiter find(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RouteLimiter route : routes) {
+            if (route.method().equals(request.getMethod()) && route.path().equals(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwardedFor)) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma >= 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error(429, "Too many requests, please retry later"));
+    }
+
+    private record RouteLimiter(String method, String path, RateLimiter byIp, RateLimiter byAccount) {
+    }
+
+    /**
+     * 预先读出请求体供限流解析账号，后续的 @RequestBody 从缓存中重新读取
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+        // 请求体超过上限时只缓存前一段，剩余部分仍从原始流读取
+        private final boolean truncated;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body, boolean truncated) {
+            super(request);
+            this.body = body;
+            this.truncated = truncated;
+        }
+
+        static CachedBodyRequest of(HttpServletRequest request) throws IOException {
+            if (request.getContentLength() > MAX_BODY_BYTES) {
+                return null;
+            }
+            byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            return new CachedBodyRequest(request, body, body.length > MAX_BODY_BYTES);
+        }
+
+        String username(ObjectMapper objectMapper) {
+            if (truncated) {
+                return null;
+            }
+            try {
+                JsonNode username = objectMapper.readTree(body).path("username");
+                return username.isTextual() && StringUtils.hasText(username.asText())
+                        ? username.asText().trim().toLowerCase(Locale.ROOT) : null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            ServletInputStream original = truncated ? super.getInputStream() : null;
+            InputStream in = truncated
+                    ? new SequenceInputStream(new ByteArrayInputStream(body), original)
+                    : new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    try {
+                        return in.available() == 0;
+                    } catch (IOException e) {
+                        return true;
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // 截断时剩余部分仍在原始流上，由原始流回调监听器，监听器读取时先拿到缓存的前一段
+                    if (truncated) {
+                        original.setReadListener(readListener);
+                        return;
+                    }
+                    // 缓存的请求体已全部就绪，直接通知监听器
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() throws IOException {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.secondhand.platform.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 接口限流配置（rate-limit.*）
+ * 每条规则匹配一个 方法 + 路径，分别限制单个 IP 和单个账号在 period 内的请求数
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // 每个维度最多跟踪的 key 数量
+    private int maxKeys = 100_000;
+
+    // 只有部署在可信反向代理之后才信任 X-Forwarded-For
+    private boolean trustForwardedFor = false;
+
+    private List<Rule> routes = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+
+        private String method = "POST";
+
+        private String path;
+
+        // 0 表示该维度不限流
+        private int ipPermits;
+
+        private int accountPermits;
+
+        private Duration period = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.secondhand.platform.security;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按 key 计数的令牌桶，使用 GCRA 实现：每个 key 只保存一个"理论到达时间"（TAT），
+ * 通过 CAS 更新，无需加锁。容量为 permits，每 period/permits 补充一个令牌。
+ * TAT 不晚于当前时间的 key 等价于满桶，可以随时丢弃，因此清理和容量淘汰都不会放宽限制。
+ * key 按加入顺序排队，容量满时只从队头检查固定数量的 key：已满桶的丢弃，仍在限流中的移到队尾；
+ * 仍然腾不出位置时，新 key 共用一个溢出桶，不会因为 key 太多而放行
+ */
+class RateLimiter {
+
+    // 容量满时每次新 key 到来最多检查的队头 key 数
+    private static final int EVICTION_SCAN = 16;
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final AtomicLong overflow;
+
+    RateLimiter(int permits, long periodNanos, int maxKeys) {
+        this.emissionIntervalNanos = periodNanos / permits;
+        this.burstToleranceNanos = periodNanos - emissionIntervalNanos;
+        this.maxKeys = maxKeys;
+        this.overflow = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    /**
+     * 放行返回 0，否则返回需要等待的纳秒数
+     */
+    long tryAcquire(String key, long now) {
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            if (buckets.size() >= maxKeys) {
+                evictOldest(now);
+            }
+            tat = buckets.size() < maxKeys ? track(key, now) : overflow;
+        }
+        return acquire(tat, now);
+    }
+
+    /**
+     * 定时全量清理已满桶的 key
+     */
+    void evictExpired(long now) {
+        order.removeIf(entry -> expire(entry, now));
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private long acquire(AtomicLong tat, long now) {
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long wait = base - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong track(String key, long now) {
+        AtomicLong created = new AtomicLong(now);
+        AtomicLong existing = buckets.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        order.offer(new Entry(key, created));
+        return created;
+    }
+
+    private void evictOldest(long now) {
+        for (int i = 0; i < EVICTION_SCAN; i++) {
+            Entry entry = order.poll();
+            if (entry == null) {
+                return;
+            }
+            if (!expire(entry, now)) {
+                order.offer(entry);
+            }
+        }
+    }
+
+    /**
+     * 已满桶或已被替换的条目从表中移除并返回 true，仍在限流中的返回 false
+     */
+    private boolean expire(Entry entry, long now) {
+        if (buckets.get(entry.key()) != entry.tat()) {
+            return true;
+        }
+        if (entry.tat().get() > now) {
+            return false;
+        }
+        buckets.remove(entry.key(), entry.tat());
+        return true;
+    }
+
+    private record Entry(String key, AtomicLong tat) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.secondhand.platform.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * 刷新令牌族
+ * 每次登录生成一个令牌族，数据库中只保存一行和当前代数；刷新令牌携带族ID和代数，
+ * 轮换时用条件 UPDATE 把代数加一，只有持有当前代数的请求能成功，同一令牌只能使用一次。
+ * 出示旧代数的令牌说明令牌已泄露或被重放，整族作废，持有新令牌的一方也需要重新登录
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenFamilyStore {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO refresh_token_families (family_id, user_id, generation, expires_at) VALUES (?, ?, 0, ?)";
+    private static final String ROTATE_SQL =
+            "UPDATE refresh_token_families SET generation = generation + 1, expires_at = ? " +
+            "WHERE family_id = ? AND generation = ? AND expires_at > now()";
+    private static final String DELETE_SQL =
+            "DELETE FROM refresh_token_families WHERE family_id = ?";
+    private static final String PURGE_SQL =
+            "DELETE FROM refresh_token_families WHERE expires_at < now()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long refreshExpiration;
+
+    /**
+     * 新建令牌族并返回族ID，首个刷新令牌的代数为 0
+     */
+    public String start(Long userId) {
+        String familyId = UUID.randomUUID().toString();
+        jdbcTemplate.update(INSERT_SQL, familyId, userId, expiresAt());
+        return familyId;
+    }
+
+    /**
+     * 消费当前代数的刷新令牌；返回 false 表示令牌已被使用或已作废，此时整族作废。
+     * 数据库异常直接抛出，调用方不能在无法确认的情况下签发新令牌
+     */
+    public boolean rotate(String familyId, int generation) {
+        if (jdbcTemplate.update(ROTATE_SQL, expiresAt(), familyId, generation) > 0) {
+            return true;
+        }
+        jdbcTemplate.update(DELETE_SQL, familyId);
+        return false;
+    }
+
+    /**
+     * 登出时作废整族；失败只记录日志，刷新令牌到期前仍可使用
+     */
+    public void revoke(String familyId) {
+        try {
+            jdbcTemplate.update(DELETE_SQL, familyId);
+        } catch (DataAccessException e) {
+            log.warn("Failed to revoke refresh token family {}: {}", familyId, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-family.purge-interval-ms:3600000}")
+    public void purge() {
+        try {
+            jdbcTemplate.update(PURGE_SQL);
+        } catch (DataAccessException e) {
+            log.warn("Failed to purge refresh token families: {}", e.getMessage());
+        }
+    }
+
+    private Timestamp expiresAt() {
+        return new Timestamp(System.currentTimeMillis() + refreshExpiration);
+    }
+}
@@ -0,0 +1,105 @@
+package com.secondhand.platform.security;
+
+import com.secondhand.platform.event.UserTokensRevokedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已吊销用户缓存
+ * 记录 用户ID -> 吊销时间（秒），签发时间早于该时间的令牌一律拒绝。
+ * 修改密码的时间持久化在 user_accounts.tokens_revoked_before，本节点在事务提交后写入，
+ * 其他节点和重启后的节点与被禁用/删除的账号一起由定时任务从 user_accounts 增量拉取。
+ * 超过令牌有效期的记录不再有意义，定时清理，因此缓存大小受令牌有效期内的吊销次数限制
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevokedUserCache {
+
+    private static final String REVOKED_USERS_SQL =
+            "SELECT id, status, tokens_revoked_before FROM user_accounts " +
+            "WHERE updated_at > ? AND (status <> 1 OR tokens_revoked_before IS NOT NULL)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 刷新令牌有效期最长，吊销记录至少保留这么久
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long tokenTtlMs;
+
+    @Value("${jwt.revocation.poll-interval-ms:30000}")
+    private long pollIntervalMs;
+
+    private final ConcurrentHashMap<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastPoll;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        // 令牌有效期内被禁用的账号都需要拦截
+        lastPoll = LocalDateTime.now().minusNanos(tokenTtlMs * 1_000_000);
+        poll();
+    }
+
+    /**
+     * JWT 的签发时间精确到秒；吊销同一秒内重新签发的令牌仍然有效
+     */
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        Long before = revokedBefore.get(userId);
+        return before != null && (issuedAt == null || issuedAt.getTime() / 1000 < before);
+    }
+
+    public void revoke(Long userId) {
+        revoke(userId, Instant.now().getEpochSecond());
+    }
+
+    public void revoke(Long userId, LocalDateTime before) {
+        revoke(userId, before.atZone(ZoneId.systemDefault()).toEpochSecond());
+    }
+
+    private void revoke(Long userId, long beforeEpochSecond) {
+        revokedBefore.merge(userId, beforeEpochSecond, Math::max);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserTokensRevoked(UserTokensRevokedEvent event) {
+        revoke(event.getUserId(), event.getRevokedBefore());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval-ms:30000}")
+    public void poll() {
+        if (lastPoll == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // 与上一轮重叠一个周期，避免边界上的更新被漏掉
+        LocalDateTime since = lastPoll.minusNanos(pollIntervalMs * 1_000_000);
+        try {
+            jdbcTemplate.query(REVOKED_USERS_SQL, rs -> {
+                if (rs.getShort(2) != 1) {
+                    revoke(rs.getLong(1));
+                } else {
+                    revoke(rs.getLong(1), rs.getObject(3, LocalDateTime.class));
+                }
+            }, since);
+            lastPoll = now;
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll revoked user accounts: {}", e.getMessage());
+        }
+
+        long expiredBefore = Instant.now().getEpochSecond() - tokenTtlMs / 1000;
+        revokedBefore.values().removeIf(before -> before < expiredBefore);
+    }
+}
@@ -0,0 +1,126 @@
+package com.secondhand.platform.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 访问令牌吊销集合（按 jti）
+ * 吊销记录按令牌过期时间分桶，查询时只看令牌所在的桶；整桶过期后一次性丢弃，不需要逐条清理。
+ * 开启 persist 时同时写入 revoked_tokens 表：启动时加载未过期的记录，
+ * 运行中定时拉取其他实例新增的记录，过滤器本身不访问数据库
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationStore {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO revoked_tokens (jti, user_id, expires_at) VALUES (?, ?, ?) ON CONFLICT (jti) DO NOTHING";
+    private static final String LOAD_SQL =
+            "SELECT jti, expires_at FROM revoked_tokens WHERE expires_at > now()";
+    private static final String POLL_SQL =
+            "SELECT jti, expires_at FROM revoked_tokens WHERE revoked_at > ? AND expires_at > now()";
+    private static final String PURGE_SQL =
+            "DELETE FROM revoked_tokens WHERE expires_at < now()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${jwt.revocation.persist:true}")
+    private boolean persist;
+
+    @Value("${jwt.revocation.bucket-ms:60000}")
+    private long bucketMs;
+
+    @Value("${jwt.revocation.poll-interval-ms:30000}")
+    private long pollIntervalMs;
+
+    // 过期时间所在的桶 -> 桶内被吊销的 jti
+    private final ConcurrentSkipListMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+    private volatile LocalDateTime lastPoll;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!persist) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                add(rs.getString(1), rs.getTimestamp(2).getTime());
+            });
+            lastPoll = now;
+        } catch (DataAccessException e) {
+            log.warn("Failed to load revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    public boolean isRevoked(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return false;
+        }
+        Set<String> bucket = buckets.get(bucketOf(expiresAt.getTime()));
+        return bucket != null && bucket.contains(jti);
+    }
+
+    /**
+     * 登出时吊销访问令牌；数据库不可用时只在本实例生效，访问令牌有效期短，可以接受。
+     * 刷新令牌的一次性使用由 RefreshTokenFamilyStore 在数据库中保证，不经过这里
+     */
+    public void revoke(String jti, Long userId, Date expiresAt) {
+        if (!add(jti, expiresAt.getTime()) || !persist) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, jti, userId, new Timestamp(expiresAt.getTime()));
+        } catch (DataAccessException e) {
+            log.warn("Failed to persist revoked token {}: {}", jti, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval-ms:30000}")
+    public void poll() {
+        // 过期时间早于当前桶的令牌都已失效，整桶丢弃
+        buckets.headMap(bucketOf(System.currentTimeMillis())).clear();
+
+        if (!persist || lastPoll == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // 与上一轮重叠一个周期，避免边界上的写入被漏掉
+        LocalDateTime since = lastPoll.minusNanos(pollIntervalMs * 1_000_000);
+        try {
+            jdbcTemplate.query(POLL_SQL, rs -> {
+                add(rs.getString(1), rs.getTimestamp(2).getTime());
+            }, since);
+            jdbcTemplate.update(PURGE_SQL);
+            lastPoll = now;
+        } catch (DataAccessException e) {
+            log.warn("Failed to poll revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    private boolean add(String jti, long expiresAtMs) {
+        if (expiresAtMs <= System.currentTimeMillis()) {
+            return true;
+        }
+        return buckets.computeIfAbsent(bucketOf(expiresAtMs), b -> ConcurrentHashMap.newKeySet()).add(jti);
+    }
+
+    private long bucketOf(long epochMs) {
+        return epochMs / bucketMs;
+    }
+}
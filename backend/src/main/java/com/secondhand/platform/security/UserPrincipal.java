@@ -17,6 +17,17 @@ public class UserPrincipal implements UserDetails {
     private final String email;
     private final boolean enabled;
 
+    /**
+     * 由已验签的 JWT 声明构造，不访问数据库；账号状态由 RevokedUserCache 检查
+     */
+    public UserPrincipal(Long id, String username) {
+        this.id = id;
+        this.username = username;
+        this.password = null;
+        this.email = null;
+        this.enabled = true;
+    }
+
     public UserPrincipal(UserAccount user) {
         this.id = user.getId();
         this.username = user.getUsername();
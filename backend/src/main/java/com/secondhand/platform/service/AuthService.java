@@ -5,41 +5,56 @@ import com.secondhand.platform.dto.ChangePasswordRequest;
 import com.secondhand.platform.dto.LoginRequest;
 import com.secondhand.platform.dto.RegisterRequest;
 import com.secondhand.platform.entity.UserAccount;
-import com.secondhand.platform.entity.UserProfile;
+import com.secondhand.platform.event.UserTokensRevokedEvent;
 import com.secondhand.platform.exception.BusinessException;
 import com.secondhand.platform.repository.UserAccountRepository;
-import com.secondhand.platform.repository.UserProfileRepository;
 import com.secondhand.platform.security.JwtUtil;
+import com.secondhand.platform.security.RefreshTokenFamilyStore;
+import com.secondhand.platform.security.RevokedUserCache;
+import com.secondhand.platform.security.TokenRevocationStore;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserAccountRepository userAccountRepository;
-    private final UserProfileRepository userProfileRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
-
-    @Transactional
+    private final RevokedUserCache revokedUserCache;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final RefreshTokenFamilyStore refreshTokenFamilyStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Argon2 计算可能在哈希队列中等待，不在事务内进行，避免排队期间占用数据库连接
+     */
     public AuthResponse register(RegisterRequest request) {
-        // Check if username already exists
-        if (userAccountRepository.existsByUsername(request.getUsername())) {
+        String phone = StringUtils.hasText(request.getPhone()) ? request.getPhone() : null;
+
+        // 用户名、邮箱、手机号一次查询；并发注册漏过的冲突由唯一约束兜底，
+        // GlobalExceptionHandler 转换为对应字段的 400
+        UserAccountRepository.TakenView taken =
+                userAccountRepository.findTaken(request.getUsername(), request.getEmail(), phone);
+        if (taken.getUsernameTaken()) {
             throw new BusinessException(400, "Username already exists");
         }
-
-        // Check if email already exists
-        if (userAccountRepository.existsByEmail(request.getEmail())) {
+        if (taken.getEmailTaken()) {
             throw new BusinessException(400, "Email already exists");
         }
-
-        // Check if phone already exists (if provided)
-        if (StringUtils.hasText(request.getPhone()) &&
-                userAccountRepository.existsByPhone(request.getPhone())) {
+        if (taken.getPhoneTaken()) {
             throw new BusinessException(400, "Phone number already exists");
         }
 
@@ -47,27 +62,17 @@ public class AuthService {
         UserAccount userAccount = UserAccount.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .phone(StringUtils.hasText(request.getPhone()) ? request.getPhone() : null)
-                .passwordHash(passwordEncoder.encode(request.getPassword()))
+                .phone(phone)
+                .passwordHash(passwordHashingService.encode(request.getPassword()))
                 .passwordAlgo("argon2")
                 .status((short) 1)
                 .build();
 
-        userAccount = userAccountRepository.save(userAccount);
-
-        // Create user profile with default values
-        UserProfile userProfile = UserProfile.builder()
-                .userAccount(userAccount)
-                .nickname(request.getUsername())
-                .build();
-
-        userProfileRepository.save(userProfile);
-
-        // Generate JWT token
-        String token = jwtUtil.generateToken(userAccount.getId(), userAccount.getUsername());
+        // 账号和默认资料（昵称同用户名）一条语句写入
+        UserAccount created = transactionTemplate.execute(
+                status -> userAccountRepository.insertWithProfile(userAccount, request.getUsername()));
 
-        return AuthResponse.of(token, userAccount.getId(), userAccount.getUsername(),
-                userAccount.getEmail(), userAccount.getPhone(), userAccount.getCreatedAt());
+        return issueTokens(created);
     }
 
     public AuthResponse login(LoginRequest request) {
@@ -81,35 +86,147 @@ public class AuthService {
         }
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), userAccount.getPasswordHash())) {
+        if (!passwordHashingService.matches(request.getPassword(), userAccount.getPasswordHash())) {
             throw new BusinessException(401, "Invalid username or password");
         }
 
-        // Generate JWT token
-        String token = jwtUtil.generateToken(userAccount.getId(), userAccount.getUsername());
+        // 旧参数生成的哈希在后台按当前参数重新计算
+        String currentHash = userAccount.getPasswordHash();
+        if (passwordHashingService.upgradeEncoding(currentHash)) {
+            Long userId = userAccount.getId();
+            passwordHashingService.rehashInBackground(request.getPassword(), newHash ->
+                    userAccountRepository.updatePasswordHashIfUnchanged(userId, currentHash, newHash, "argon2"));
+        }
 
-        return AuthResponse.of(token, userAccount.getId(), userAccount.getUsername(),
-                userAccount.getEmail(), userAccount.getPhone(), userAccount.getCreatedAt());
+        return issueTokens(userAccount);
     }
 
-    @Transactional
+    /**
+     * 刷新令牌轮换：令牌族的代数在数据库中加一成功后才签发新的一对令牌，
+     * 重放或并发使用同一刷新令牌会被拒绝；无法访问数据库时不签发
+     */
+    public AuthResponse refresh(String refreshToken) {
+        Claims claims = parseOrNull(refreshToken);
+        if (claims == null || !jwtUtil.isRefreshToken(claims)) {
+            throw new BusinessException(401, "Invalid refresh token");
+        }
+
+        Long userId = claims.get("userId", Long.class);
+        String familyId = jwtUtil.familyOf(claims);
+        Integer generation = jwtUtil.generationOf(claims);
+        if (userId == null || familyId == null || generation == null
+                || revokedUserCache.isRevoked(userId, claims.getIssuedAt())) {
+            throw new BusinessException(401, "Invalid refresh token");
+        }
+
+        UserAccount userAccount = userAccountRepository.findById(userId)
+                .orElseThrow(() -> new BusinessException(401, "Invalid refresh token"));
+        if (userAccount.getStatus() != 1) {
+            throw new BusinessException(403, "Account is disabled or deleted");
+        }
+        // 以数据库中的吊销时间为准，不依赖本节点缓存是否已同步
+        if (issuedBeforeRevocation(claims, userAccount)) {
+            throw new BusinessException(401, "Invalid refresh token");
+        }
+
+        boolean rotated;
+        try {
+            rotated = refreshTokenFamilyStore.rotate(familyId, generation);
+        } catch (DataAccessException e) {
+            throw new BusinessException(503, "Token service unavailable, please retry");
+        }
+        if (!rotated) {
+            throw new BusinessException(401, "Refresh token has already been used");
+        }
+        return issueTokens(userAccount, familyId, generation + 1);
+    }
+
+    /**
+     * 吊销当前访问令牌，作废刷新令牌所属的令牌族；已过期或无效的令牌直接忽略
+     */
+    public void logout(String accessToken, String refreshToken) {
+        Claims access = parseOrNull(accessToken);
+        if (access != null && access.getId() != null && !jwtUtil.isRefreshToken(access)) {
+            tokenRevocationStore.revoke(access.getId(), access.get("userId", Long.class), access.getExpiration());
+        }
+        Claims refresh = parseOrNull(refreshToken);
+        if (refresh != null && jwtUtil.isRefreshToken(refresh) && jwtUtil.familyOf(refresh) != null) {
+            refreshTokenFamilyStore.revoke(jwtUtil.familyOf(refresh));
+        }
+    }
+
+    /**
+     * 与注册相同，哈希计算在事务之外，只有写入新哈希的更新语句在事务中
+     */
     public void changePassword(String username, ChangePasswordRequest request) {
         // Find user by username
         UserAccount userAccount = userAccountRepository.findByUsername(username)
                 .orElseThrow(() -> new BusinessException(404, "User not found"));
+        String currentHash = userAccount.getPasswordHash();
 
         // Verify old password
-        if (!passwordEncoder.matches(request.getOldPassword(), userAccount.getPasswordHash())) {
+        if (!passwordHashingService.matches(request.getOldPassword(), currentHash)) {
             throw new BusinessException(400, "Old password is incorrect");
         }
 
         // Check if new password is same as old password
-        if (passwordEncoder.matches(request.getNewPassword(), userAccount.getPasswordHash())) {
+        // 旧密码已验证通过，直接比较明文即可，无需再算一次哈希
+        if (request.getNewPassword().equals(request.getOldPassword())) {
             throw new BusinessException(400, "New password must be different from old password");
         }
 
         // Update password
-        userAccount.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
-        userAccountRepository.save(userAccount);
+        // 修改密码后此前签发的令牌全部失效；吊销时间随密码一起持久化，其他节点轮询加载，
+        // 本节点在事务提交后写入缓存
+        String newHash = passwordHashingService.encode(request.getNewPassword());
+        LocalDateTime revokedBefore = LocalDateTime.now();
+        Long userId = userAccount.getId();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (userAccountRepository.changePasswordIfUnchanged(userId, currentHash, newHash, "argon2",
+                    revokedBefore) == 0) {
+                throw new BusinessException(409, "Password was changed concurrently, please retry");
+            }
+            eventPublisher.publishEvent(new UserTokensRevokedEvent(userId, revokedBefore));
+        });
+    }
+
+    /**
+     * 登录和注册：开始新的令牌族
+     */
+    private AuthResponse issueTokens(UserAccount userAccount) {
+        return issueTokens(userAccount, refreshTokenFamilyStore.start(userAccount.getId()), 0);
+    }
+
+    private AuthResponse issueTokens(UserAccount userAccount, String familyId, int generation) {
+        String token = jwtUtil.generateToken(userAccount.getId(), userAccount.getUsername());
+        String refreshToken = jwtUtil.generateRefreshToken(userAccount.getId(), userAccount.getUsername(),
+                familyId, generation);
+
+        return AuthResponse.of(token, refreshToken, userAccount.getId(), userAccount.getUsername(),
+                userAccount.getEmail(), userAccount.getPhone(), userAccount.getCreatedAt());
+    }
+
+    /**
+     * 与 RevokedUserCache 相同按秒比较：同一秒内重新签发的令牌仍然有效
+     */
+    private static boolean issuedBeforeRevocation(Claims claims, UserAccount userAccount) {
+        LocalDateTime revokedBefore = userAccount.getTokensRevokedBefore();
+        if (revokedBefore == null) {
+            return false;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null
+                || issuedAt.getTime() / 1000 < revokedBefore.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private Claims parseOrNull(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        try {
+            return jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 }
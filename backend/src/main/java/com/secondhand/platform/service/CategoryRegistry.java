@@ -0,0 +1,94 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.entity.Category;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+
+/**
+ * 分类 slug 注册表，随分类快照一起从 categories 表加载，加载后只读
+ * slug -> ID 用不可变 Map，ID -> slug 和 ID -> 自身及全部子孙分类用以 ID 为下标的数组，查询时不访问数据库
+ */
+public final class CategoryRegistry {
+
+    private final Map<String, Integer> idBySlug;
+    private final String[] slugById;
+    private final List<List<Integer>> subtreeById;
+
+    private CategoryRegistry(Map<String, Integer> idBySlug, String[] slugById, List<List<Integer>> subtreeById) {
+        this.idBySlug = idBySlug;
+        this.slugById = slugById;
+        this.subtreeById = subtreeById;
+    }
+
+    /**
+     * @param aliases 旧版前端使用、但分类表中不存在的 slug，映射到现有分类的 slug
+     */
+    static CategoryRegistry build(List<Category> categories, Map<String, String> aliases) {
+        int maxId = categories.stream().mapToInt(Category::getId).max().orElse(0);
+        String[] slugById = new String[maxId + 1];
+        Map<String, Integer> idBySlug = new HashMap<>();
+        Map<Integer, List<Integer>> childrenByParent = new HashMap<>();
+
+        for (Category category : categories) {
+            if (StringUtils.hasText(category.getSlug())) {
+                slugById[category.getId()] = category.getSlug();
+                idBySlug.put(category.getSlug(), category.getId());
+            }
+            if (category.getParentId() != null) {
+                childrenByParent.computeIfAbsent(category.getParentId(), id -> new ArrayList<>()).add(category.getId());
+            }
+        }
+        aliases.forEach((alias, slug) -> {
+            Integer id = idBySlug.get(slug);
+            if (id != null) {
+                idBySlug.putIfAbsent(alias, id);
+            }
+        });
+
+        List<List<Integer>> subtreeById = new ArrayList<>(Collections.nCopies(maxId + 1, List.of()));
+        for (Category category : categories) {
+            List<Integer> subtree = new ArrayList<>();
+            collectSubtree(category.getId(), childrenByParent, subtree);
+            Collections.sort(subtree);
+            subtreeById.set(category.getId(), List.copyOf(subtree));
+        }
+
+        return new CategoryRegistry(Map.copyOf(idBySlug), slugById, Collections.unmodifiableList(subtreeById));
+    }
+
+    private static void collectSubtree(Integer id, Map<Integer, List<Integer>> childrenByParent, List<Integer> out) {
+        out.add(id);
+        for (Integer child : childrenByParent.getOrDefault(id, List.of())) {
+            collectSubtree(child, childrenByParent, out);
+        }
+    }
+
+    /**
+     * slug 对应的分类ID，未知或为空时返回 null
+     */
+    public Integer idOf(String slug) {
+        return slug != null ? idBySlug.get(slug) : null;
+    }
+
+    public String slugOf(Integer id) {
+        if (id == null || id < 0 || id >= slugById.length) {
+            return null;
+        }
+        return slugById[id];
+    }
+
+    public boolean contains(Integer id) {
+        return id != null && id >= 0 && id < subtreeById.size() && !subtreeById.get(id).isEmpty();
+    }
+
+    /**
+     * 分类自身及全部子孙分类的ID（升序），用于 category_id IN (...) 过滤；未知分类只返回自身
+     */
+    public List<Integer> subtreeOf(Integer id) {
+        if (id >= 0 && id < subtreeById.size() && !subtreeById.get(id).isEmpty()) {
+            return subtreeById.get(id);
+        }
+        return List.of(id);
+    }
+}
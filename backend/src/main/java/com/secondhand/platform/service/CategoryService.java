@@ -1,61 +1,177 @@
 package com.secondhand.platform.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secondhand.platform.dto.ApiResponse;
 import com.secondhand.platform.dto.CategoryResponse;
 import com.secondhand.platform.entity.Category;
+import com.secondhand.platform.exception.BusinessException;
 import com.secondhand.platform.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * 分类查询
+ * 分类数据几乎不变，一次 findAll 在内存中建树并保存为不可变快照，超过 TTL 或调用 refresh() 后重新加载
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${category.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("#{${category.slug-aliases:{:}}}")
+    private Map<String, String> slugAliases;
+
+    private volatile CategorySnapshot snapshot;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        getSnapshot();
+    }
 
-    @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategories() {
-        List<Category> rootCategories = categoryRepository.findByParentIdIsNullOrderBySortOrder();
-        return rootCategories.stream()
-                .map(this::buildCategoryTree)
-                .toList();
+        return getSnapshot().getTree();
     }
 
-    @Transactional(readOnly = true)
     public List<CategoryResponse> getRootCategories() {
-        return categoryRepository.findByParentIdIsNullOrderBySortOrder()
-                .stream()
-                .map(CategoryResponse::fromEntity)
-                .toList();
+        return getSnapshot().getRoots();
     }
 
-    @Transactional(readOnly = true)
     public List<CategoryResponse> getSubCategories(Integer parentId) {
-        return categoryRepository.findByParentIdOrderBySortOrder(parentId)
-                .stream()
-                .map(CategoryResponse::fromEntity)
-                .toList();
+        return getSnapshot().getChildren(parentId);
+    }
+
+    public CategoryRegistry getRegistry() {
+        return getSnapshot().getRegistry();
+    }
+
+    /**
+     * 列表过滤用：分类 slug 展开为自身及全部子分类ID，未知 slug 返回 400
+     */
+    public List<Integer> resolveFilter(String slug) {
+        if (!StringUtils.hasText(slug)) {
+            return null;
+        }
+        CategoryRegistry registry = getRegistry();
+        Integer id = registry.idOf(slug);
+        if (id == null) {
+            throw new BusinessException(400, "Unknown category: " + slug);
+        }
+        return registry.subtreeOf(id);
+    }
+
+    /**
+     * 列表过滤用：分类ID展开为自身及全部子分类ID
+     */
+    public List<Integer> resolveFilter(Integer categoryId) {
+        return categoryId != null ? getRegistry().subtreeOf(categoryId) : null;
     }
 
-    private CategoryResponse buildCategoryTree(Category category) {
-        List<Category> children = categoryRepository.findByParentIdOrderBySortOrder(category.getId());
+    /**
+     * 当前快照；过期时由一个线程重新加载，其余线程继续使用旧快照
+     */
+    public CategorySnapshot getSnapshot() {
+        CategorySnapshot current = snapshot;
+        if (current != null && !current.isExpired(ttlMs)) {
+            return current;
+        }
+        if (current != null && !refreshLock.tryLock()) {
+            return current;
+        }
+        if (current == null) {
+            refreshLock.lock();
+        }
+        try {
+            current = snapshot;
+            if (current == null || current.isExpired(ttlMs)) {
+                current = load();
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * 分类数据被修改后调用，立即重建快照
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            snapshot = load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private CategorySnapshot load() {
+        List<Category> all = categoryRepository.findAll(Sort.by("sortOrder", "id"));
 
-        List<CategoryResponse> childResponses = null;
-        if (!children.isEmpty()) {
-            childResponses = children.stream()
-                    .map(this::buildCategoryTree)
-                    .toList();
+        Map<Integer, List<Category>> byParent = new HashMap<>();
+        for (Category category : all) {
+            byParent.computeIfAbsent(category.getParentId(), id -> new ArrayList<>()).add(category);
         }
 
-        return CategoryResponse.builder()
-                .id(category.getId())
-                .name(category.getName())
-                .parentId(category.getParentId())
-                .icon(category.getIcon())
-                .sortOrder(category.getSortOrder())
-                .children(childResponses)
-                .build();
+        List<CategoryResponse> tree = buildTree(byParent, null);
+        List<CategoryResponse> roots = byParent.getOrDefault(null, List.of()).stream()
+                .map(CategoryResponse::fromEntity)
+                .toList();
+        Map<Integer, List<CategoryResponse>> childrenByParent = new HashMap<>();
+        byParent.forEach((parentId, children) -> {
+            if (parentId != null) {
+                childrenByParent.put(parentId, children.stream().map(CategoryResponse::fromEntity).toList());
+            }
+        });
+
+        byte[] treeJson;
+        try {
+            treeJson = objectMapper.writeValueAsBytes(ApiResponse.success(tree));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize category tree", e);
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex(treeJson) + "\"";
+
+        log.info("Category snapshot loaded: {} categories, etag {}", all.size(), etag);
+        return new CategorySnapshot(tree, roots, Map.copyOf(childrenByParent), treeJson, etag,
+                CategoryRegistry.build(all, slugAliases), System.currentTimeMillis());
+    }
+
+    private static List<CategoryResponse> buildTree(Map<Integer, List<Category>> byParent, Integer parentId) {
+        List<Category> children = byParent.get(parentId);
+        if (children == null) {
+            return List.of();
+        }
+        return children.stream()
+                .map(category -> {
+                    List<CategoryResponse> grandChildren = buildTree(byParent, category.getId());
+                    return CategoryResponse.builder()
+                            .id(category.getId())
+                            .name(category.getName())
+                            .slug(category.getSlug())
+                            .parentId(category.getParentId())
+                            .icon(category.getIcon())
+                            .sortOrder(category.getSortOrder())
+                            .children(grandChildren.isEmpty() ? null : grandChildren)
+                            .build();
+                })
+                .toList();
     }
 }
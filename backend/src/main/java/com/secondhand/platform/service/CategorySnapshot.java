@@ -0,0 +1,33 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.dto.CategoryResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分类数据的不可变快照：分类树、一级分类、按父分类分组的子分类、slug 注册表，以及预先序列化好的分类树响应和 ETag
+ */
+@Getter
+@AllArgsConstructor
+public class CategorySnapshot {
+
+    private final List<CategoryResponse> tree;
+    private final List<CategoryResponse> roots;
+    private final Map<Integer, List<CategoryResponse>> childrenByParent;
+    // ApiResponse 包装后的分类树 JSON
+    private final byte[] treeJson;
+    private final String etag;
+    private final CategoryRegistry registry;
+    private final long loadedAt;
+
+    public List<CategoryResponse> getChildren(Integer parentId) {
+        return childrenByParent.getOrDefault(parentId, List.of());
+    }
+
+    boolean isExpired(long ttlMs) {
+        return System.currentTimeMillis() - loadedAt >= ttlMs;
+    }
+}
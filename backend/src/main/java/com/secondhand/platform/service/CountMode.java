@@ -0,0 +1,31 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.exception.BusinessException;
+
+import java.util.Locale;
+
+/**
+ * 列表总数的统计方式
+ */
+public enum CountMode {
+
+    /** 每次执行 COUNT(*) */
+    EXACT,
+
+    /** 精确计数并按过滤条件缓存，商品写入后失效 */
+    CACHED,
+
+    /** 取查询计划的行数估计，不扫描数据 */
+    ESTIMATED;
+
+    public static CountMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(400, "Invalid countMode, expected exact, cached or estimated");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.dto.OrderSummary;
+import com.secondhand.platform.exception.BusinessException;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 订单列表键集分页游标
+ * 订单列表固定按 (created_at, id) 倒序，游标记录上一页最后一条订单的这两个值，
+ * 编码为不透明的 base64url 字符串
+ */
+public record OrderCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static OrderCursor after(OrderSummary order) {
+        return new OrderCursor(order.createdAt(), order.id());
+    }
+
+    public static OrderCursor decode(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 2);
+            if (parts.length != 2) {
+                throw new BusinessException(400, "Invalid cursor");
+            }
+            return new OrderCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException(400, "Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
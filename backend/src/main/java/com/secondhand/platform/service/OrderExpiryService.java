@@ -0,0 +1,194 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.entity.Order;
+import com.secondhand.platform.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 待支付订单超时取消
+ * 本节点创建的订单和启动时加载的待支付订单按截止时间放入 DelayQueue，到期后批量取消；
+ * 另有定时全表扫描兜底，处理其他节点创建的订单。
+ * 取消和释放商品预留在一条语句中完成，候选订单用 FOR UPDATE SKIP LOCKED 认领，
+ * 多个节点同时执行时同一订单只会被其中一个处理，也不会互相等待行锁
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderExpiryService {
+
+    private static final String EXPIRE_CTE =
+            "cancelled AS (" +
+            "  UPDATE orders o SET status = -1, cancelled_at = now() " +
+            "  FROM claimed c WHERE o.id = c.id " +
+            "  RETURNING o.id, o.product_id, o.buyer_id, o.seller_id" +
+            "), locked AS (" +
+            // 释放前按商品ID顺序锁行，与浏览量写回等批量更新 products 的语句加锁顺序一致
+            "  SELECT p.id FROM products p WHERE p.id IN (SELECT product_id FROM cancelled) AND p.status = 3 " +
+            "  ORDER BY p.id FOR UPDATE OF p" +
+            "), released AS (" +
+            "  UPDATE products p SET status = 1, updated_at = now() " +
+            "  FROM locked l WHERE p.id = l.id AND p.status = 3 " +
+            "  RETURNING p.id" +
+            ") " +
+            "SELECT c.id, c.product_id, r.id IS NOT NULL, c.buyer_id, c.seller_id " +
+            "FROM cancelled c LEFT JOIN released r ON r.id = c.product_id";
+
+    // 到期的指定订单
+    private static final String EXPIRE_BY_IDS_SQL =
+            "WITH claimed AS (" +
+            "  SELECT id FROM orders WHERE id = ANY(?) AND status = 0 AND created_at <= ? " +
+            "  FOR UPDATE SKIP LOCKED" +
+            "), " + EXPIRE_CTE;
+
+    // 全表扫描兜底
+    private static final String EXPIRE_OLDEST_SQL =
+            "WITH claimed AS (" +
+            "  SELECT id FROM orders WHERE status = 0 AND created_at <= ? " +
+            "  ORDER BY created_at LIMIT ? " +
+            "  FOR UPDATE SKIP LOCKED" +
+            "), " + EXPIRE_CTE;
+
+    private static final String PENDING_SQL =
+            "SELECT id, created_at FROM orders WHERE status = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderStatsService orderStatsService;
+
+    @Value("${order.expiry.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${order.expiry.batch-size:200}")
+    private int batchSize;
+
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            jdbcTemplate.query(PENDING_SQL, rs -> {
+                schedule(rs.getLong(1), rs.getObject(2, LocalDateTime.class));
+            });
+            log.info("Order expiry loaded {} pending orders (timeout {} ms)", deadlines.size(), timeoutMs);
+        } catch (DataAccessException e) {
+            log.warn("Failed to load pending orders, relying on periodic sweep: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 登记新建的待支付订单；事务回滚时订单不存在，到期处理时自然跳过
+     */
+    public void schedule(Long orderId, LocalDateTime createdAt) {
+        long createdAtMs = (createdAt != null ? createdAt : LocalDateTime.now())
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        deadlines.add(new Deadline(orderId, createdAtMs + timeoutMs));
+    }
+
+    @Scheduled(fixedDelayString = "${order.expiry.poll-interval-ms:1000}")
+    public void expireDue() {
+        List<Deadline> due = new ArrayList<>(batchSize);
+        while (deadlines.drainTo(due, batchSize) > 0) {
+            Long[] ids = due.stream().map(Deadline::orderId).toArray(Long[]::new);
+            try {
+                expire(EXPIRE_BY_IDS_SQL, ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+                    ps.setTimestamp(2, cutoff());
+                });
+            } catch (DataAccessException e) {
+                // 失败的批次交给定时扫描处理
+                log.warn("Failed to expire {} pending orders: {}", ids.length, e.getMessage());
+            }
+            due.clear();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.expiry.sweep-interval-ms:60000}")
+    public void sweep() {
+        try {
+            int cancelled;
+            do {
+                cancelled = expire(EXPIRE_OLDEST_SQL, ps -> {
+                    ps.setTimestamp(1, cutoff());
+                    ps.setInt(2, batchSize);
+                });
+            } while (cancelled >= batchSize);
+        } catch (DataAccessException e) {
+            log.warn("Failed to sweep expired orders: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 返回本次取消的订单数；取消订单和更新订单统计在同一事务中
+     */
+    private int expire(String sql, StatementBinder binder) {
+        List<OrderStatsService.StatusChange> cancelledOrders = new ArrayList<>();
+        List<Long> releasedProducts = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                binder.bind(ps);
+                return ps;
+            }, rs -> {
+                cancelledOrders.add(new OrderStatsService.StatusChange(
+                        rs.getLong(4), rs.getLong(5), Order.STATUS_PENDING, Order.STATUS_CANCELLED));
+                if (rs.getBoolean(3)) {
+                    releasedProducts.add(rs.getLong(2));
+                }
+            });
+            orderStatsService.apply(cancelledOrders);
+        });
+
+        for (Long productId : releasedProducts) {
+            eventPublisher.publishEvent(new ProductChangedEvent(productId, ProductChangedEvent.ChangeType.STATUS_CHANGED));
+        }
+        if (!cancelledOrders.isEmpty()) {
+            log.info("Cancelled {} expired pending orders, released {} products",
+                    cancelledOrders.size(), releasedProducts.size());
+        }
+        return cancelledOrders.size();
+    }
+
+    private Timestamp cutoff() {
+        return Timestamp.valueOf(LocalDateTime.now().minusNanos(timeoutMs * 1_000_000));
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    private record Deadline(Long orderId, long deadlineMs) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineMs - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineMs, ((Deadline) other).deadlineMs);
+        }
+    }
+}
@@ -2,16 +2,18 @@ package com.secondhand.platform.service;
 
 import com.secondhand.platform.dto.CreateOrderRequest;
 import com.secondhand.platform.dto.OrderResponse;
+import com.secondhand.platform.dto.OrderStatsResponse;
+import com.secondhand.platform.dto.OrderSummary;
 import com.secondhand.platform.dto.PageResponse;
 import com.secondhand.platform.entity.Order;
+import com.secondhand.platform.entity.OrderTransition;
 import com.secondhand.platform.entity.Product;
+import com.secondhand.platform.event.ProductChangedEvent;
 import com.secondhand.platform.exception.BusinessException;
 import com.secondhand.platform.repository.OrderRepository;
 import com.secondhand.platform.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,11 +27,18 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final long UNKNOWN_TOTAL = -1;
+
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderExpiryService orderExpiryService;
+    private final OrderStatsService orderStatsService;
 
     /**
      * 创建订单
+     * 先用条件 UPDATE 把商品从上架中改为已预留，只有一个请求能成功，其余请求直接返回 409，不加行锁等待；
+     * orders 上的部分唯一索引（每个商品最多一个进行中的订单）作为最后一道保障
      */
     @Transactional
     public OrderResponse createOrder(Long buyerId, CreateOrderRequest request) {
@@ -38,7 +47,10 @@ public class OrderService {
                 .orElseThrow(() -> new BusinessException(404, "商品不存在"));
 
         // 检查商品状态
-        if (product.getStatus() != 1) {
+        if (product.getStatus() == Product.STATUS_RESERVED) {
+            throw new BusinessException(409, "该商品已有进行中的订单");
+        }
+        if (product.getStatus() != Product.STATUS_ON_SALE) {
             throw new BusinessException(400, "商品已下架或已售出");
         }
 
@@ -47,11 +59,11 @@ public class OrderService {
             throw new BusinessException(400, "不能购买自己的商品");
         }
 
-        // 检查是否有未完成的订单
-        List<Short> activeStatuses = List.of(Order.STATUS_PENDING, Order.STATUS_PAID, Order.STATUS_SHIPPED);
-        if (orderRepository.existsByProductIdAndStatusIn(request.getProductId(), activeStatuses)) {
-            throw new BusinessException(400, "该商品已有进行中的订单");
+        // 预留商品
+        if (productRepository.transitionStatus(product.getId(), Product.STATUS_ON_SALE, Product.STATUS_RESERVED) == 0) {
+            throw new BusinessException(409, "该商品已被其他买家下单");
         }
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), ProductChangedEvent.ChangeType.STATUS_CHANGED));
 
         // 生成订单号
         String orderNo = generateOrderNo();
@@ -76,6 +88,8 @@ public class OrderService {
                 .build();
 
         order = orderRepository.save(order);
+        orderStatsService.recordCreated(order);
+        orderExpiryService.schedule(order.getId(), order.getCreatedAt());
 
         return OrderResponse.fromEntitySimple(order);
     }
@@ -84,38 +98,67 @@ public class OrderService {
      * 获取买家订单列表（购买记录）
      */
     @Transactional(readOnly = true)
-    public PageResponse<OrderResponse> getBuyerOrders(Long buyerId, Integer page, Integer pageSize, String status) {
-        int pageIndex = Math.max(0, page - 1);
-        Pageable pageable = PageRequest.of(pageIndex, pageSize);
-
-        Page<Order> orderPage;
-        if (status != null && !status.equals("all")) {
-            Short statusCode = Order.parseStatus(status);
-            orderPage = orderRepository.findByBuyerIdAndStatusOrderByCreatedAtDesc(buyerId, statusCode, pageable);
-        } else {
-            orderPage = orderRepository.findByBuyerIdOrderByCreatedAtDesc(buyerId, pageable);
-        }
-
-        return PageResponse.from(orderPage, OrderResponse::fromEntitySimple);
+    public PageResponse<OrderResponse> getBuyerOrders(Long buyerId, Integer page, Integer pageSize, String status,
+                                                      String cursorToken, Boolean withTotal) {
+        return findOrders(false, buyerId, page, pageSize, status, cursorToken, withTotal);
     }
 
     /**
      * 获取卖家订单列表（销售记录）
      */
     @Transactional(readOnly = true)
-    public PageResponse<OrderResponse> getSellerOrders(Long sellerId, Integer page, Integer pageSize, String status) {
+    public PageResponse<OrderResponse> getSellerOrders(Long sellerId, Integer page, Integer pageSize, String status,
+                                                       String cursorToken, Boolean withTotal) {
+        return findOrders(true, sellerId, page, pageSize, status, cursorToken, withTotal);
+    }
+
+    /**
+     * 有游标时从 (created_at, id) 之后读取，否则按偏移量；多取一条判断是否还有下一页。
+     * 总数默认只在不带游标的请求中统计（第一次进入列表或按页码跳转），翻页时不再重复 COUNT
+     */
+    private PageResponse<OrderResponse> findOrders(boolean asSeller, Long userId, Integer page, Integer pageSize,
+                                                   String status, String cursorToken, Boolean withTotal) {
+        if (pageSize == null || pageSize < 1) {
+            throw new BusinessException(400, "Page size must be at least 1");
+        }
         int pageIndex = Math.max(0, page - 1);
-        Pageable pageable = PageRequest.of(pageIndex, pageSize);
-
-        Page<Order> orderPage;
-        if (status != null && !status.equals("all")) {
-            Short statusCode = Order.parseStatus(status);
-            orderPage = orderRepository.findBySellerIdAndStatusOrderByCreatedAtDesc(sellerId, statusCode, pageable);
-        } else {
-            orderPage = orderRepository.findBySellerIdOrderByCreatedAtDesc(sellerId, pageable);
+        Short statusCode = status != null && !status.equals("all") ? Order.parseStatus(status) : null;
+        OrderCursor cursor = OrderCursor.decode(cursorToken);
+
+        LocalDateTime afterCreatedAt = cursor != null ? cursor.createdAt() : null;
+        Long afterId = cursor != null ? cursor.id() : null;
+        long offset = cursor != null ? 0 : (long) pageIndex * pageSize;
+        List<OrderSummary> rows = asSeller
+                ? orderRepository.findSellerSummaries(userId, statusCode, afterCreatedAt, afterId, offset, pageSize + 1)
+                : orderRepository.findBuyerSummaries(userId, statusCode, afterCreatedAt, afterId, offset, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderSummary> content = hasMore ? rows.subList(0, pageSize) : rows;
+
+        boolean countTotal = withTotal != null ? withTotal : cursor == null;
+        long total = countTotal ? countOrders(asSeller, userId, statusCode) : UNKNOWN_TOTAL;
+        String nextCursor = hasMore ? OrderCursor.after(content.get(content.size() - 1)).encode() : null;
+
+        int responsePage = cursor == null ? pageIndex : 0;
+        return PageResponse.of(content.stream().map(OrderResponse::fromSummary).toList(), responsePage, pageSize,
+                total, cursor == null && pageIndex == 0, hasMore, nextCursor);
+    }
+
+    private long countOrders(boolean asSeller, Long userId, Short status) {
+        if (asSeller) {
+            return status != null
+                    ? orderRepository.countBySellerIdAndStatus(userId, status)
+                    : orderRepository.countBySellerId(userId);
         }
+        return status != null
+                ? orderRepository.countByBuyerIdAndStatus(userId, status)
+                : orderRepository.countByBuyerId(userId);
+    }
 
-        return PageResponse.from(orderPage, OrderResponse::fromEntitySimple);
+    /**
+     * 获取订单统计（按买家/卖家和订单状态计数）
+     */
+    public OrderStatsResponse getOrderStats(Long userId) {
+        return orderStatsService.getStats(userId);
     }
 
     /**
@@ -139,28 +182,7 @@ public class OrderService {
      */
     @Transactional
     public OrderResponse payOrder(Long orderId, Long buyerId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new BusinessException(404, "订单不存在"));
-
-        // 验证买家
-        if (!order.getBuyerId().equals(buyerId)) {
-            throw new BusinessException(403, "无权操作此订单");
-        }
-
-        // 验证状态
-        if (order.getStatus() != Order.STATUS_PENDING) {
-            throw new BusinessException(400, "订单状态不正确");
-        }
-
-        // 更新订单状态
-        order.setStatus(Order.STATUS_PAID);
-        order.setPaidAt(LocalDateTime.now());
-        orderRepository.save(order);
-
-        // 更新商品状态为已售出
-        productRepository.updateStatus(order.getProductId(), order.getSellerId(), (short) 2);
-
-        return OrderResponse.fromEntitySimple(order);
+        return OrderResponse.fromEntitySimple(transition(orderId, buyerId, OrderTransition.PAY));
     }
 
     /**
@@ -168,25 +190,7 @@ public class OrderService {
      */
     @Transactional
     public OrderResponse shipOrder(Long orderId, Long sellerId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new BusinessException(404, "订单不存在"));
-
-        // 验证卖家
-        if (!order.getSellerId().equals(sellerId)) {
-            throw new BusinessException(403, "无权操作此订单");
-        }
-
-        // 验证状态
-        if (order.getStatus() != Order.STATUS_PAID) {
-            throw new BusinessException(400, "订单状态不正确，只有已支付订单可以发货");
-        }
-
-        // 更新订单状态
-        order.setStatus(Order.STATUS_SHIPPED);
-        order.setShippedAt(LocalDateTime.now());
-        orderRepository.save(order);
-
-        return OrderResponse.fromEntitySimple(order);
+        return OrderResponse.fromEntitySimple(transition(orderId, sellerId, OrderTransition.SHIP));
     }
 
     /**
@@ -194,51 +198,44 @@ public class OrderService {
      */
     @Transactional
     public OrderResponse completeOrder(Long orderId, Long buyerId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new BusinessException(404, "订单不存在"));
-
-        // 验证买家
-        if (!order.getBuyerId().equals(buyerId)) {
-            throw new BusinessException(403, "无权操作此订单");
-        }
-
-        // 验证状态
-        if (order.getStatus() != Order.STATUS_SHIPPED) {
-            throw new BusinessException(400, "订单状态不正确，只有已发货订单可以确认收货");
-        }
-
-        // 更新订单状态
-        order.setStatus(Order.STATUS_COMPLETED);
-        order.setCompletedAt(LocalDateTime.now());
-        orderRepository.save(order);
-
-        return OrderResponse.fromEntitySimple(order);
+        return OrderResponse.fromEntitySimple(transition(orderId, buyerId, OrderTransition.COMPLETE));
     }
 
     /**
-     * 取消订单
+     * 取消订单（买家或卖家都可以取消待支付订单）
      */
     @Transactional
     public OrderResponse cancelOrder(Long orderId, Long userId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new BusinessException(404, "订单不存在"));
+        return OrderResponse.fromEntitySimple(transition(orderId, userId, OrderTransition.CANCEL));
+    }
 
-        // 验证用户（买家或卖家都可以取消）
-        if (!order.getBuyerId().equals(userId) && !order.getSellerId().equals(userId)) {
-            throw new BusinessException(403, "无权操作此订单");
+    /**
+     * 状态迁移一条语句完成，并发的迁移中只有一个能匹配到原状态；
+     * 未更新任何行时再查询订单，区分不存在、无权操作和状态已变化
+     */
+    private Order transition(Long orderId, Long userId, OrderTransition transition) {
+        Order order = orderRepository.transition(orderId, userId, transition)
+                .orElseThrow(() -> transitionFailure(orderId, userId, transition));
+        orderStatsService.recordTransition(order, transition.getFrom());
+
+        if (transition.affectsProduct()) {
+            ProductChangedEvent.ChangeType type = transition == OrderTransition.PAY
+                    ? ProductChangedEvent.ChangeType.SOLD
+                    : ProductChangedEvent.ChangeType.STATUS_CHANGED;
+            eventPublisher.publishEvent(new ProductChangedEvent(order.getProductId(), type));
         }
+        return order;
+    }
 
-        // 只有待支付状态可以取消
-        if (order.getStatus() != Order.STATUS_PENDING) {
-            throw new BusinessException(400, "只有待支付订单可以取消");
+    private BusinessException transitionFailure(Long orderId, Long userId, OrderTransition transition) {
+        Order current = orderRepository.findById(orderId).orElse(null);
+        if (current == null) {
+            return new BusinessException(404, "订单不存在");
         }
-
-        // 更新订单状态
-        order.setStatus(Order.STATUS_CANCELLED);
-        order.setCancelledAt(LocalDateTime.now());
-        orderRepository.save(order);
-
-        return OrderResponse.fromEntitySimple(order);
+        if (!transition.permits(userId, current.getBuyerId(), current.getSellerId())) {
+            return new BusinessException(403, "无权操作此订单");
+        }
+        return new BusinessException(409, transition.getInvalidStateMessage());
     }
 
     /**
@@ -0,0 +1,227 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.dto.OrderStatsResponse;
+import com.secondhand.platform.entity.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 用户订单统计
+ * order_stats 按 (用户, 买家/卖家, 订单状态) 保存订单数，下单和每次状态迁移时在同一事务中增量更新，
+ * 查询只读取该用户的几行，与订单数量无关。
+ * 另有定时对账任务按用户分批用 orders 重新计数，修复漂移
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStatsService {
+
+    public static final short ROLE_BUYER = 0;
+    public static final short ROLE_SELLER = 1;
+
+    private static final short[] STATUSES = {
+            Order.STATUS_PENDING, Order.STATUS_PAID, Order.STATUS_SHIPPED,
+            Order.STATUS_COMPLETED, Order.STATUS_CANCELLED
+    };
+
+    private static final String STATS_SQL =
+            "SELECT role, status, order_count FROM order_stats WHERE user_id = ?";
+
+    private static final String UPSERT_PREFIX =
+            "INSERT INTO order_stats (user_id, role, status, order_count) VALUES ";
+
+    private static final String UPSERT_SUFFIX =
+            " ON CONFLICT (user_id, role, status) DO UPDATE " +
+            "SET order_count = order_stats.order_count + EXCLUDED.order_count, updated_at = now()";
+
+    private static final String USER_BATCH_SQL =
+            "SELECT id FROM user_accounts WHERE id > ? ORDER BY id LIMIT ?";
+
+    // 按用户加事务级咨询锁，用户ID升序获取；增量更新和对账都先拿锁，
+    // 锁住的是"用户"而不是已有的计数行，还不存在的行也在保护范围内
+    private static final String LOCK_USERS_SQL =
+            "SELECT pg_advisory_xact_lock(u.id) FROM (SELECT id FROM unnest(?::bigint[]) AS t(id) ORDER BY id) u";
+
+    private static final String REPAIR_SQL =
+            "WITH actual AS (" +
+            "  SELECT buyer_id AS user_id, " + ROLE_BUYER + " AS role, status, count(*) AS order_count " +
+            "  FROM orders WHERE buyer_id = ANY(?) GROUP BY buyer_id, status " +
+            "  UNION ALL " +
+            "  SELECT seller_id, " + ROLE_SELLER + ", status, count(*) " +
+            "  FROM orders WHERE seller_id = ANY(?) GROUP BY seller_id, status" +
+            "), stored AS (" +
+            "  SELECT user_id, role, status, order_count FROM order_stats WHERE user_id = ANY(?)" +
+            ") " +
+            "INSERT INTO order_stats (user_id, role, status, order_count) " +
+            "SELECT COALESCE(a.user_id, s.user_id), COALESCE(a.role, s.role), COALESCE(a.status, s.status), " +
+            "       COALESCE(a.order_count, 0) " +
+            "FROM actual a FULL JOIN stored s " +
+            "  ON s.user_id = a.user_id AND s.role = a.role AND s.status = a.status " +
+            "WHERE COALESCE(a.order_count, 0) <> COALESCE(s.order_count, 0) " +
+            "ON CONFLICT (user_id, role, status) DO UPDATE " +
+            "SET order_count = EXCLUDED.order_count, updated_at = now()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.stats.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    public OrderStatsResponse getStats(Long userId) {
+        Map<String, Long> buying = emptyCounts();
+        Map<String, Long> selling = emptyCounts();
+        jdbcTemplate.query(STATS_SQL, rs -> {
+            Map<String, Long> counts = rs.getShort(1) == ROLE_BUYER ? buying : selling;
+            long orderCount = rs.getLong(3);
+            counts.computeIfPresent(Order.statusText(rs.getShort(2)), (k, v) -> orderCount);
+        }, userId);
+        return OrderStatsResponse.builder()
+                .buying(buying)
+                .selling(selling)
+                .build();
+    }
+
+    /**
+     * 新建订单；需要在创建订单的事务中调用
+     */
+    public void recordCreated(Order order) {
+        apply(List.of(new StatusChange(order.getBuyerId(), order.getSellerId(), null, order.getStatus())));
+    }
+
+    /**
+     * 订单状态迁移；需要在迁移订单的事务中调用
+     */
+    public void recordTransition(Order order, short from) {
+        apply(List.of(new StatusChange(order.getBuyerId(), order.getSellerId(), from, order.getStatus())));
+    }
+
+    /**
+     * 多个订单的变化合并为一条 upsert；同一行的增量先在内存中相加。
+     * 写入前按用户ID升序拿涉及用户的咨询锁，与对账互斥；并发事务以相同顺序加锁，不会互相死锁。
+     * 每个事务只应调用一次，多次调用时后一次的用户可能小于前一次，破坏加锁顺序
+     */
+    public void apply(Collection<StatusChange> changes) {
+        TreeMap<CounterKey, Long> deltas = new TreeMap<>(CounterKey.ORDER);
+        for (StatusChange change : changes) {
+            if (change.from() != null) {
+                deltas.merge(new CounterKey(change.buyerId(), ROLE_BUYER, change.from()), -1L, Long::sum);
+                deltas.merge(new CounterKey(change.sellerId(), ROLE_SELLER, change.from()), -1L, Long::sum);
+            }
+            deltas.merge(new CounterKey(change.buyerId(), ROLE_BUYER, change.to()), 1L, Long::sum);
+            deltas.merge(new CounterKey(change.sellerId(), ROLE_SELLER, change.to()), 1L, Long::sum);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        lockUsers(deltas.keySet().stream().map(CounterKey::userId).distinct().toArray(Long[]::new));
+
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+        List<Object> args = new ArrayList<>(deltas.size() * 4);
+        for (Map.Entry<CounterKey, Long> entry : deltas.entrySet()) {
+            if (!args.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?)");
+            args.add(entry.getKey().userId());
+            args.add(entry.getKey().role());
+            args.add(entry.getKey().status());
+            args.add(entry.getValue());
+        }
+        sql.append(UPSERT_SUFFIX);
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * 按用户ID分批对账，每批一个事务：先拿本批用户的咨询锁，挡住并发的增量更新（包括首次创建计数行的），
+     * 再用 orders 重新计数，只写入不一致的行。
+     * 增量更新与订单变更在同一事务中，拿到锁时已持有锁的事务都已提交，计数语句能看到它们的订单；
+     * 之后的增量更新要等对账提交，再在修复后的值上累加
+     */
+    @Scheduled(initialDelayString = "${order.stats.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${order.stats.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        long lastUserId = 0;
+        int repaired = 0;
+        try {
+            while (true) {
+                List<Long> userIds = jdbcTemplate.queryForList(USER_BATCH_SQL, Long.class,
+                        lastUserId, reconcileBatchSize);
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                Long[] ids = userIds.toArray(Long[]::new);
+                Integer batchRepaired = transactionTemplate.execute(status -> reconcileBatch(ids));
+                repaired += batchRepaired != null ? batchRepaired : 0;
+                lastUserId = ids[ids.length - 1];
+                if (ids.length < reconcileBatchSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Order stats reconciliation stopped after user {}: {}", lastUserId, e.getMessage());
+        }
+        if (repaired > 0) {
+            log.warn("Order stats reconciliation repaired {} counters", repaired);
+        }
+    }
+
+    private int reconcileBatch(Long[] userIds) {
+        lockUsers(userIds);
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(REPAIR_SQL);
+            Array ids = con.createArrayOf("bigint", userIds);
+            ps.setArray(1, ids);
+            ps.setArray(2, ids);
+            ps.setArray(3, ids);
+            return ps;
+        });
+    }
+
+    private void lockUsers(Long[] userIds) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_USERS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", userIds));
+            return ps;
+        }, rs -> {
+        });
+    }
+
+    private static Map<String, Long> emptyCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (short status : STATUSES) {
+            counts.put(Order.statusText(status), 0L);
+        }
+        return counts;
+    }
+
+    /**
+     * 一个订单的状态变化；from 为 null 表示新建
+     */
+    public record StatusChange(Long buyerId, Long sellerId, Short from, Short to) {
+    }
+
+    private record CounterKey(Long userId, short role, short status) {
+
+        static final Comparator<CounterKey> ORDER = Comparator.comparing(CounterKey::userId)
+                .thenComparingInt(CounterKey::role)
+                .thenComparingInt(CounterKey::status);
+    }
+}
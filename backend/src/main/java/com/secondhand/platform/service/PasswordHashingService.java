@@ -0,0 +1,177 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.exception.BusinessException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 密码哈希执行器
+ * Argon2 每次计算占用 password.argon2.memory-kb 的内存，全部放到固定大小的专用线程池中执行：
+ * 并发数按最大堆内存的一定比例除以单次内存占用计算，排队数有上限，
+ * 线程池饱和时直接返回 429，认证请求不会耗尽 Tomcat 线程或堆内存
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${password.argon2.memory-kb:65536}")
+    private int memoryKb;
+
+    // 0 表示按堆内存自动计算
+    @Value("${password.hashing.concurrency:0}")
+    private int configuredConcurrency;
+
+    @Value("${password.hashing.heap-fraction:0.25}")
+    private double heapFraction;
+
+    @Value("${password.hashing.queue-capacity:0}")
+    private int configuredQueueCapacity;
+
+    @Value("${password.hashing.max-wait-ms:5000}")
+    private long maxWaitMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        int concurrency = configuredConcurrency > 0 ? configuredConcurrency : autoConcurrency();
+        int queueCapacity = configuredQueueCapacity > 0 ? configuredQueueCapacity : concurrency * 4;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.prestartAllCoreThreads();
+
+        log.info("Password hashing pool started: concurrency={}, queue={}, memory per hash={} KB",
+                concurrency, queueCapacity, memoryKb);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 后台重新哈希，不阻塞调用方；线程池饱和时直接放弃，下次登录再尝试
+     */
+    public void rehashInBackground(CharSequence rawPassword, Consumer<String> onHashed) {
+        try {
+            executor.execute(() -> {
+                try {
+                    onHashed.accept(passwordEncoder.encode(rawPassword));
+                } catch (RuntimeException e) {
+                    log.warn("Failed to upgrade password hash: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Password hashing pool saturated, skipping hash upgrade");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${password.hashing.metrics-interval-ms:60000}")
+    public void logMetrics() {
+        long done = completed.sumThenReset();
+        long rejectedCount = rejected.sumThenReset();
+        long timedOutCount = timedOut.sumThenReset();
+        long waitNanos = queueWaitNanos.sumThenReset();
+        long workNanos = hashNanos.sumThenReset();
+        if (done == 0 && rejectedCount == 0 && timedOutCount == 0) {
+            return;
+        }
+        log.info("Password hashing: {} completed, {} rejected, {} timed out, avg queue wait {} ms, avg hash {} ms, queued {}",
+                done, rejectedCount, timedOutCount,
+                done > 0 ? TimeUnit.NANOSECONDS.toMillis(waitNanos / done) : 0,
+                done > 0 ? TimeUnit.NANOSECONDS.toMillis(workNanos / done) : 0,
+                executor.getQueue().size());
+    }
+
+    private int autoConcurrency() {
+        long budget = (long) (Runtime.getRuntime().maxMemory() * heapFraction);
+        long perHash = memoryKb * 1024L;
+        int byMemory = (int) Math.max(1, budget / perHash);
+        return Math.min(byMemory, Runtime.getRuntime().availableProcessors());
+    }
+
+    private <T> T execute(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitNanos.add(startedAt - submittedAt);
+                try {
+                    return task.call();
+                } finally {
+                    hashNanos.add(System.nanoTime() - startedAt);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BusinessException(429, "Too many authentication requests, please retry later");
+        }
+
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 仍在排队的任务直接取消，不再占用哈希线程
+            future.cancel(false);
+            timedOut.increment();
+            throw new BusinessException(429, "Too many authentication requests, please retry later");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(503, "Request interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.secondhand.platform.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secondhand.platform.entity.Product;
+import com.secondhand.platform.event.ProductChangedEvent;
+import com.secondhand.platform.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 商品列表总数统计
+ * 精确计数、按过滤条件缓存的精确计数（商品写入后整体失效）、或取 PostgreSQL 查询计划的行数估计
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductCountService {
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${product.count.cache-ttl-ms:30000}")
+    private long cacheTtlMs;
+
+    @Value("${product.count.cache-max-entries:1000}")
+    private int cacheMaxEntries;
+
+    private final Map<ProductFilter, CachedCount> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 总数和是否为估计值
+     */
+    public record Total(long value, boolean estimated) {
+    }
+
+    public Total count(ProductFilter filter, Specification<Product> spec, CountMode mode) {
+        return switch (mode) {
+            case EXACT -> new Total(productRepository.count(spec), false);
+            case CACHED -> new Total(cachedCount(filter, spec), false);
+            case ESTIMATED -> estimate(filter, spec);
+        };
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // 任意商品的上下架、改价、改分类都可能影响任意一组过滤条件的总数
+        cache.clear();
+    }
+
+    private long cachedCount(ProductFilter filter, Specification<Product> spec) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = cache.get(filter);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.value();
+        }
+
+        long value = productRepository.count(spec);
+        if (cache.size() >= cacheMaxEntries) {
+            cache.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (cache.size() >= cacheMaxEntries) {
+                cache.clear();
+            }
+        }
+        cache.put(filter, new CachedCount(value, now + cacheTtlMs));
+        return value;
+    }
+
+    /**
+     * 对等价的 SQL 执行 EXPLAIN，读取计划根节点的 "Plan Rows"；失败时退回精确计数
+     */
+    private Total estimate(ProductFilter filter, Specification<Product> spec) {
+        List<Object> args = new ArrayList<>();
+        String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM products p WHERE " + whereClause(filter, args);
+        try {
+            String plan = jdbcTemplate.queryForObject(sql, String.class, args.toArray());
+            JsonNode rows = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            if (rows.isNumber()) {
+                return new Total(rows.asLong(), true);
+            }
+            log.warn("Unexpected EXPLAIN output for product count estimate: {}", plan);
+        } catch (Exception e) {
+            log.warn("Failed to estimate product count: {}", e.getMessage());
+        }
+        return new Total(productRepository.count(spec), false);
+    }
+
+    /**
+     * 与 ProductService 中的 Specification 条件保持一致
+     */
+    private static String whereClause(ProductFilter filter, List<Object> args) {
+        StringBuilder where = new StringBuilder(filter.isIncludeInactive() ? "p.status <> -1" : "p.status = 1");
+        if (filter.getSellerId() != null) {
+            where.append(" AND p.seller_id = ?");
+            args.add(filter.getSellerId());
+        }
+        if (filter.getKeyword() != null) {
+            String pattern = "%" + filter.getKeyword() + "%";
+            where.append(" AND (LOWER(p.title) LIKE ? OR LOWER(p.description) LIKE ?)");
+            args.add(pattern);
+            args.add(pattern);
+        }
+        if (filter.getCategoryIds() != null) {
+            where.append(" AND p.category_id IN (")
+                    .append(String.join(", ", Collections.nCopies(filter.getCategoryIds().size(), "?")))
+                    .append(")");
+            args.addAll(filter.getCategoryIds());
+        }
+        if (filter.getMinPrice() != null) {
+            where.append(" AND p.price >= ?");
+            args.add(filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null) {
+            where.append(" AND p.price <= ?");
+            args.add(filter.getMaxPrice());
+        }
+        if (filter.getMinCondition() != null) {
+            where.append(" AND p.condition >= ?");
+            args.add(filter.getMinCondition());
+        }
+        if (filter.getLocation() != null) {
+            where.append(" AND p.location LIKE ?");
+            args.add("%" + filter.getLocation() + "%");
+        }
+        return where.toString();
+    }
+
+    private record CachedCount(long value, long expiresAt) {
+    }
+}
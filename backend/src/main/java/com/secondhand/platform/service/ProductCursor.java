@@ -0,0 +1,79 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.dto.ProductSummary;
+import com.secondhand.platform.exception.BusinessException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 键集分页游标
+ * 记录上一页最后一条商品的排序键和ID，编码为不透明的 base64url 字符串，下一页从该位置之后继续读取
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ProductCursor {
+
+    public static final String CREATED_AT = "createdAt";
+    public static final String PRICE = "price";
+    public static final String VIEW_COUNT = "viewCount";
+
+    private static final String SEPARATOR = "|";
+
+    private final String sortField;
+    private final boolean ascending;
+    // LocalDateTime / BigDecimal / Integer，对应 sortField
+    private final Object value;
+    private final Long id;
+
+    public static ProductCursor after(ProductSummary product, String sortField, boolean ascending) {
+        Object value = switch (sortField) {
+            case PRICE -> product.price();
+            case VIEW_COUNT -> product.viewCount() != null ? product.viewCount() : 0;
+            default -> product.createdAt();
+        };
+        return new ProductCursor(sortField, ascending, value, product.id());
+    }
+
+    public static ProductCursor decode(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new BusinessException(400, "Invalid cursor");
+            }
+            Object value = switch (parts[0]) {
+                case CREATED_AT -> LocalDateTime.parse(parts[2]);
+                case PRICE -> new BigDecimal(parts[2]);
+                case VIEW_COUNT -> Integer.valueOf(parts[2]);
+                default -> throw new BusinessException(400, "Invalid cursor");
+            };
+            return new ProductCursor(parts[0], "a".equals(parts[1]), value, Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            throw new BusinessException(400, "Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = sortField + SEPARATOR + (ascending ? "a" : "d") + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 游标只能用于生成它的排序方式，排序参数变化时拒绝，避免跳过或重复数据
+     */
+    public void requireSort(String sortField, boolean ascending) {
+        if (!this.sortField.equals(sortField) || this.ascending != ascending) {
+            throw new BusinessException(400, "Cursor does not match the requested sort order");
+        }
+    }
+}
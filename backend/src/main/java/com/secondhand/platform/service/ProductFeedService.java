@@ -0,0 +1,355 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.dto.ProductListResponse;
+import com.secondhand.platform.dto.ProductSummary;
+import com.secondhand.platform.event.ProductChangedEvent;
+import com.secondhand.platform.event.ViewCountsFlushedEvent;
+import com.secondhand.platform.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 首页"最新"/"热门"商品榜单
+ * 每个榜单在内存中维护 Top-K，商品上下架和浏览量写回时增量更新，读请求不访问数据库
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductFeedService {
+
+    private static final Comparator<ProductListResponse> LATEST_ORDER = Comparator
+            .comparing(ProductListResponse::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ProductListResponse::getId)
+            .reversed();
+
+    private static final Comparator<ProductListResponse> HOT_ORDER = Comparator
+            .comparing((ProductListResponse p) -> p.getViewCount() != null ? p.getViewCount() : 0)
+            .thenComparing(ProductListResponse::getId)
+            .reversed();
+
+    private final ProductRepository productRepository;
+
+    @Value("${product.feed.max-size:50}")
+    private int maxSize;
+
+    private final TopKFeed latest = new TopKFeed(LATEST_ORDER);
+    private final TopKFeed hot = new TopKFeed(HOT_ORDER);
+    // 分类ID -> 该分类及其子分类的热门榜，只为已知分类建立
+    private final Map<Integer, CategoryFeed> hotByCategory = new ConcurrentHashMap<>();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        refreshLatest();
+        refreshHot();
+        log.info("Product feeds loaded: {} latest, {} hot", latest.snapshot().size(), hot.snapshot().size());
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public List<ProductListResponse> getLatest(int limit) {
+        refreshLatest();
+        return latest.top(limit);
+    }
+
+    public List<ProductListResponse> getHot(int limit) {
+        refreshHot();
+        return hot.top(limit);
+    }
+
+    /**
+     * 分类热门榜，包含子分类的商品
+     *
+     * @param categoryId  调用方已校验存在的分类ID
+     * @param categoryIds 该分类自身及全部子孙分类ID；分类树变化后重建榜单
+     */
+    public List<ProductListResponse> getHot(int limit, Integer categoryId, List<Integer> categoryIds) {
+        CategoryFeed entry = hotByCategory.compute(categoryId, (id, existing) ->
+                existing != null && existing.categoryIds().equals(Set.copyOf(categoryIds))
+                        ? existing
+                        : new CategoryFeed(Set.copyOf(categoryIds), new TopKFeed(HOT_ORDER)));
+        TopKFeed feed = entry.feed();
+        feed.refreshIfStale(() -> toResponses(
+                productRepository.findHotActiveByCategoryIn(categoryIds, PageRequest.of(0, maxSize))), maxSize);
+        return feed.top(limit);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pending.add(event.getProductId());
+    }
+
+    /**
+     * 浏览量写回后更新热门榜：榜内商品直接改计数，新晋商品按ID批量加载后插入
+     */
+    @EventListener
+    public void onViewCountsFlushed(ViewCountsFlushedEvent event) {
+        Map<Long, Integer> viewCounts = event.getViewCounts();
+        latest.updateViewCounts(viewCounts);
+        hot.updateViewCounts(viewCounts);
+        hotByCategory.values().forEach(entry -> entry.feed().updateViewCounts(viewCounts));
+
+        List<Long> candidates = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : viewCounts.entrySet()) {
+            boolean admitted = hot.admits(entry.getKey(), entry.getValue(), maxSize);
+            for (CategoryFeed categoryFeed : hotByCategory.values()) {
+                admitted = admitted || categoryFeed.feed().admits(entry.getKey(), entry.getValue(), maxSize);
+            }
+            if (admitted) {
+                candidates.add(entry.getKey());
+            }
+        }
+        if (!candidates.isEmpty()) {
+            applyChanges(candidates);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.feed.refresh-interval-ms:500}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pending);
+        pending.removeAll(ids);
+        applyChanges(ids);
+    }
+
+    private void applyChanges(List<Long> ids) {
+        Map<Long, ProductSummary> byId = new HashMap<>();
+        for (ProductSummary product : productRepository.findSummariesByIdIn(ids)) {
+            byId.put(product.id(), product);
+        }
+
+        for (Long id : ids) {
+            ProductSummary product = byId.get(id);
+            if (product == null || product.status() == null || product.status() != 1) {
+                latest.remove(id);
+                hot.remove(id);
+                hotByCategory.values().forEach(entry -> entry.feed().remove(id));
+                continue;
+            }
+
+            ProductListResponse item = ProductListResponse.fromSummary(product);
+            latest.upsert(item, maxSize);
+            hot.upsert(item, maxSize);
+            // 分类变更时先从其他分类榜中移除
+            hotByCategory.values().forEach(entry -> {
+                if (product.categoryId() != null && entry.categoryIds().contains(product.categoryId())) {
+                    entry.feed().upsert(item, maxSize);
+                } else {
+                    entry.feed().remove(id);
+                }
+            });
+        }
+    }
+
+    private void refreshLatest() {
+        latest.refreshIfStale(() -> toResponses(productRepository.findLatestActive(PageRequest.of(0, maxSize))), maxSize);
+    }
+
+    private void refreshHot() {
+        hot.refreshIfStale(() -> toResponses(productRepository.findHotActive(PageRequest.of(0, maxSize))), maxSize);
+    }
+
+    private static List<ProductListResponse> toResponses(List<ProductSummary> products) {
+        return products.stream()
+                .map(ProductListResponse::fromSummary)
+                .toList();
+    }
+
+    private record CategoryFeed(Set<Integer> categoryIds, TopKFeed feed) {
+    }
+
+    /**
+     * 单个 Top-K 榜单；读操作只访问不可变快照，写操作串行执行后替换快照。
+     * 重新加载同一时间只有一个线程执行，其余读请求继续读旧快照；
+     * 加载期间到达的增量更新先记下，替换快照时覆盖查询结果中对应的商品，避免被旧数据冲掉
+     */
+    static final class TopKFeed {
+
+        private final Comparator<ProductListResponse> order;
+        private final ReentrantLock reloadLock = new ReentrantLock();
+        private volatile List<ProductListResponse> snapshot = List.of();
+        private volatile boolean stale = true;
+        private volatile boolean loaded;
+        // 上次加载时数据库中的记录数不足容量，说明榜单已包含全部商品
+        private boolean exhaustive;
+        // 加载期间的增量：商品ID -> 最新条目，null 表示已移除；不在加载时为 null
+        private Map<Long, ProductListResponse> changedDuringReload;
+        private Map<Long, Integer> viewCountsDuringReload;
+
+        TopKFeed(Comparator<ProductListResponse> order) {
+            this.order = order;
+        }
+
+        List<ProductListResponse> snapshot() {
+            return snapshot;
+        }
+
+        List<ProductListResponse> top(int limit) {
+            List<ProductListResponse> current = snapshot;
+            return current.subList(0, Math.min(limit, current.size()));
+        }
+
+        /**
+         * 不在榜内的商品按新浏览量能否挤进榜单；
+         * 未满的榜单要么已包含全部上架商品，要么已标记待重新加载，都不需要额外加载
+         */
+        boolean admits(Long id, int viewCount, int capacity) {
+            List<ProductListResponse> current = snapshot;
+            if (current.size() < capacity || current.stream().anyMatch(p -> p.getId().equals(id))) {
+                return false;
+            }
+            Integer min = current.get(current.size() - 1).getViewCount();
+            return viewCount >= (min != null ? min : 0);
+        }
+
+        /**
+         * 需要时重新加载；已有快照时拿不到加载锁就直接返回，由正在加载的线程完成，
+         * 首次加载前没有可用的快照，等待加载完成
+         */
+        void refreshIfStale(Supplier<List<ProductListResponse>> loader, int capacity) {
+            if (!stale) {
+                return;
+            }
+            if (loaded) {
+                if (!reloadLock.tryLock()) {
+                    return;
+                }
+            } else {
+                reloadLock.lock();
+            }
+            try {
+                if (!stale) {
+                    return;
+                }
+                beginReload();
+                List<ProductListResponse> items;
+                try {
+                    items = loader.get();
+                } catch (RuntimeException e) {
+                    endReload();
+                    throw e;
+                }
+                finishReload(items, capacity);
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+
+        private synchronized void beginReload() {
+            changedDuringReload = new HashMap<>();
+            viewCountsDuringReload = new HashMap<>();
+        }
+
+        private synchronized void endReload() {
+            changedDuringReload = null;
+            viewCountsDuringReload = null;
+        }
+
+        private synchronized void finishReload(List<ProductListResponse> items, int capacity) {
+            List<ProductListResponse> next = new ArrayList<>(items.size() + changedDuringReload.size());
+            boolean removed = false;
+            for (ProductListResponse item : items) {
+                if (!changedDuringReload.containsKey(item.getId())) {
+                    next.add(item);
+                } else if (changedDuringReload.get(item.getId()) == null) {
+                    removed = true;
+                }
+            }
+            for (ProductListResponse item : changedDuringReload.values()) {
+                if (item != null) {
+                    next.add(item);
+                }
+            }
+            next.replaceAll(item -> {
+                Integer viewCount = viewCountsDuringReload.get(item.getId());
+                return viewCount != null ? item.toBuilder().viewCount(viewCount).build() : item;
+            });
+            next.sort(order);
+
+            exhaustive = items.size() < capacity;
+            if (next.size() > capacity) {
+                next = next.subList(0, capacity);
+                exhaustive = false;
+            }
+            snapshot = List.copyOf(next);
+            // 查询结果之外还有商品时，加载期间的移除使第 K 名未知，下次读取时再加载
+            stale = removed && !exhaustive;
+            loaded = true;
+            endReload();
+        }
+
+        synchronized void upsert(ProductListResponse item, int capacity) {
+            if (changedDuringReload != null) {
+                changedDuringReload.put(item.getId(), item);
+            }
+            List<ProductListResponse> next = new ArrayList<>(snapshot.size() + 1);
+            for (ProductListResponse existing : snapshot) {
+                if (!existing.getId().equals(item.getId())) {
+                    next.add(existing);
+                }
+            }
+            next.add(item);
+            next.sort(order);
+            if (next.size() > capacity) {
+                next = next.subList(0, capacity);
+                exhaustive = false;
+            }
+            snapshot = List.copyOf(next);
+        }
+
+        synchronized void remove(Long id) {
+            if (changedDuringReload != null) {
+                changedDuringReload.put(id, null);
+            }
+            List<ProductListResponse> next = snapshot.stream()
+                    .filter(p -> !p.getId().equals(id))
+                    .toList();
+            if (next.size() == snapshot.size()) {
+                return;
+            }
+            snapshot = next;
+            // 榜单未覆盖全部商品时，移除后第 K 名未知，下次读取时重新加载
+            if (!exhaustive) {
+                stale = true;
+            }
+        }
+
+        synchronized void updateViewCounts(Map<Long, Integer> viewCounts) {
+            if (viewCountsDuringReload != null) {
+                viewCountsDuringReload.putAll(viewCounts);
+            }
+            boolean changed = false;
+            List<ProductListResponse> next = new ArrayList<>(snapshot.size());
+            for (ProductListResponse existing : snapshot) {
+                Integer viewCount = viewCounts.get(existing.getId());
+                if (viewCount != null) {
+                    next.add(existing.toBuilder().viewCount(viewCount).build());
+                    changed = true;
+                } else {
+                    next.add(existing);
+                }
+            }
+            if (changed) {
+                next.sort(order);
+                snapshot = List.copyOf(next);
+            }
+        }
+    }
+}
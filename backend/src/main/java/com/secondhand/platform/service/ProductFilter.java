@@ -0,0 +1,54 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.dto.ProductSearchRequest;
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 规范化后的商品列表过滤条件
+ * 同一组条件只有一种表示（关键词去空白小写、价格去掉末尾的0），可直接作为 count 缓存的键
+ */
+@Value
+@Builder
+public class ProductFilter {
+
+    String keyword;
+    // 分类及其子分类ID（升序）
+    List<Integer> categoryIds;
+    BigDecimal minPrice;
+    BigDecimal maxPrice;
+    Short minCondition;
+    String location;
+    Long sellerId;
+    // true 时包含下架和已售商品（仍排除已删除），否则只查在售商品
+    boolean includeInactive;
+
+    public static ProductFilter of(ProductSearchRequest request, List<Integer> categoryIds) {
+        return ProductFilter.builder()
+                .keyword(StringUtils.hasText(request.getKeyword())
+                        ? request.getKeyword().trim().toLowerCase(Locale.ROOT)
+                        : null)
+                .categoryIds(categoryIds)
+                .minPrice(normalize(request.getMinPrice()))
+                .maxPrice(normalize(request.getMaxPrice()))
+                .minCondition(request.getCondition())
+                .location(StringUtils.hasText(request.getLocation()) ? request.getLocation().trim() : null)
+                .build();
+    }
+
+    public static ProductFilter ofSeller(Long sellerId) {
+        return ProductFilter.builder()
+                .sellerId(sellerId)
+                .includeInactive(true)
+                .build();
+    }
+
+    private static BigDecimal normalize(BigDecimal price) {
+        return price != null ? price.stripTrailingZeros() : null;
+    }
+}
@@ -2,30 +2,50 @@ package com.secondhand.platform.service;
 
 import com.secondhand.platform.dto.*;
 import com.secondhand.platform.entity.Product;
-import com.secondhand.platform.entity.ProductImage;
+import com.secondhand.platform.event.ProductChangedEvent;
+import com.secondhand.platform.event.ProductChangedEvent.ChangeType;
 import com.secondhand.platform.exception.BusinessException;
 import com.secondhand.platform.repository.ProductImageRepository;
 import com.secondhand.platform.repository.ProductRepository;
+import com.secondhand.platform.search.ProductSearchIndex;
+import com.secondhand.platform.search.SearchHits;
+import com.secondhand.platform.search.SearchQuery;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final long UNKNOWN_TOTAL = -1;
+    private static final int MAX_PAGE_SIZE = 100;
+    // 偏移分页的最大跳过行数，更深的页需改用游标
+    private static final int MAX_OFFSET = 10_000;
+
     private final ProductRepository productRepository;
     private final ProductImageRepository productImageRepository;
+    private final ProductSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ViewCountBuffer viewCountBuffer;
+    private final ProductFeedService productFeedService;
+    private final ProductCountService productCountService;
+    private final CategoryService categoryService;
 
     @Transactional
     public ProductResponse createProduct(Long sellerId, ProductCreateRequest request) {
@@ -34,8 +54,8 @@ public class ProductService {
                 ? request.getImages().get(0)
                 : "";
 
-        // 将分类字符串映射为分类ID
-        Integer categoryId = mapCategoryToId(request.getCategory());
+        // 将分类 slug 映射为分类ID，未知分类不设置
+        Integer categoryId = categoryService.getRegistry().idOf(request.getCategory());
 
         Product product = Product.builder()
                 .sellerId(sellerId)
@@ -50,6 +70,7 @@ public class ProductService {
                 .build();
 
         product = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), ChangeType.CREATED));
 
         // Save images
         if (request.getImages() != null && !request.getImages().isEmpty()) {
@@ -59,21 +80,6 @@ public class ProductService {
         return getProductById(product.getId());
     }
 
-    private Integer mapCategoryToId(String category) {
-        if (category == null) return null;
-        return switch (category) {
-            case "clothing" -> 1;
-            case "electronics" -> 2;
-            case "shoes" -> 3;
-            case "study" -> 4;
-            case "daily" -> 5;
-            case "sports" -> 6;
-            case "books" -> 7;
-            case "other" -> 8;
-            default -> null;
-        };
-    }
-
     @Transactional
     public ProductResponse updateProduct(Long productId, Long sellerId, ProductUpdateRequest request) {
         Product product = productRepository.findById(productId)
@@ -87,36 +93,33 @@ public class ProductService {
             throw new BusinessException(400, "Cannot update a deleted product");
         }
 
-        if (StringUtils.hasText(request.getTitle())) {
-            product.setTitle(request.getTitle());
-        }
-        if (StringUtils.hasText(request.getCoverUrl())) {
-            product.setCoverUrl(request.getCoverUrl());
-        }
-        if (request.getDescription() != null) {
-            product.setDescription(request.getDescription());
-        }
-        if (request.getPrice() != null) {
-            product.setPrice(request.getPrice());
-        }
-        if (request.getOriginalPrice() != null) {
-            product.setOriginalPrice(request.getOriginalPrice());
-        }
-        if (request.getCategoryId() != null) {
-            product.setCategoryId(request.getCategoryId());
-        }
-        if (request.getCondition() != null) {
-            product.setCondition(request.getCondition());
-        }
-        if (request.getLocation() != null) {
-            product.setLocation(request.getLocation());
+        // 有待支付订单时商品信息已被订单快照，不允许修改
+        if (product.getStatus() == Product.STATUS_RESERVED) {
+            throw new BusinessException(409, "Product is reserved by a pending order");
         }
 
-        productRepository.save(product);
+        // 新值算在局部变量中，不修改托管实体：整行写回会覆盖并发下单写入的预留状态和浏览量
+        String title = StringUtils.hasText(request.getTitle()) ? request.getTitle() : product.getTitle();
+        String coverUrl = StringUtils.hasText(request.getCoverUrl()) ? request.getCoverUrl() : product.getCoverUrl();
+        String description = request.getDescription() != null ? request.getDescription() : product.getDescription();
+        BigDecimal price = request.getPrice() != null ? request.getPrice() : product.getPrice();
+        BigDecimal originalPrice = request.getOriginalPrice() != null
+                ? request.getOriginalPrice() : product.getOriginalPrice();
+        Integer categoryId = request.getCategoryId() != null ? request.getCategoryId() : product.getCategoryId();
+        Short condition = request.getCondition() != null ? request.getCondition() : product.getCondition();
+        String location = request.getLocation() != null ? request.getLocation() : product.getLocation();
+
+        // 读取之后被下单预留的商品由条件更新拦下
+        int updated = productRepository.updateDetails(productId, sellerId, title, coverUrl, description, price,
+                originalPrice, categoryId, condition, location, Product.searchTextOf(title, description));
+        if (updated == 0) {
+            throw statusUpdateFailure(productId);
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, ChangeType.UPDATED));
 
         // Update images if provided
         if (request.getImageUrls() != null) {
-            productImageRepository.deleteByProductId(productId);
+            productImageRepository.deleteAllByProductId(productId);
             if (!request.getImageUrls().isEmpty()) {
                 saveProductImages(productId, request.getImageUrls());
             }
@@ -130,21 +133,24 @@ public class ProductService {
         Product product = productRepository.findByIdWithAllDetails(productId)
                 .orElseThrow(() -> new BusinessException(404, "Product not found"));
 
-        return ProductResponse.fromEntity(product);
+        return ProductResponse.fromEntity(product, categoryService.getRegistry().slugOf(product.getCategoryId()));
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public ProductResponse getProductByIdAndIncrementView(Long productId) {
-        productRepository.incrementViewCount(productId);
-        return getProductById(productId);
+        ProductResponse response = getProductById(productId);
+        // 浏览量先记入内存缓冲，由 ViewCountBuffer 批量写回
+        viewCountBuffer.increment(productId);
+        return response;
     }
 
     @Transactional
     public void deleteProduct(Long productId, Long sellerId) {
-        int updated = productRepository.updateStatus(productId, sellerId, (short) -1);
+        int updated = productRepository.updateStatus(productId, sellerId, Product.STATUS_DELETED);
         if (updated == 0) {
-            throw new BusinessException(404, "Product not found or you don't have permission");
+            throw statusUpdateFailure(productId);
         }
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, ChangeType.DELETED));
     }
 
     @Transactional
@@ -155,161 +161,383 @@ public class ProductService {
 
         int updated = productRepository.updateStatus(productId, sellerId, status);
         if (updated == 0) {
-            throw new BusinessException(404, "Product not found or you don't have permission");
+            throw statusUpdateFailure(productId);
+        }
+        eventPublisher.publishEvent(new ProductChangedEvent(productId, ChangeType.STATUS_CHANGED));
+    }
+
+    /**
+     * 有待支付订单的商品由订单流程管理状态，卖家不能下架或删除
+     */
+    private BusinessException statusUpdateFailure(Long productId) {
+        boolean reserved = productRepository.findById(productId)
+                .map(product -> product.getStatus() == Product.STATUS_RESERVED)
+                .orElse(false);
+        if (reserved) {
+            return new BusinessException(409, "Product is reserved by a pending order");
         }
+        return new BusinessException(404, "Product not found or you don't have permission");
     }
 
     @Transactional(readOnly = true)
     public PageResponse<ProductListResponse> searchProducts(ProductSearchRequest request) {
-        Sort sort = createSort(request.getSortBy(), request.getSortOrder());
-        Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), sort);
+        int size = requirePageSize(request.getSize());
+        int pageIndex = Math.max(0, request.getPage());
+        boolean ascending = "asc".equalsIgnoreCase(request.getSortOrder());
+        ProductCursor cursor = ProductCursor.decode(request.getCursor());
+        CountMode countMode = countModeFor(request.getWithTotal(), request.getCountMode(), cursor);
+
+        SearchQuery.SortKey sortKey = toSortKey(request.getSortBy());
+        if (sortKey == SearchQuery.SortKey.RELEVANCE && cursor != null) {
+            throw new BusinessException(400, "Cursor paging is not supported for relevance sort");
+        }
 
-        Specification<Product> spec = createSearchSpecification(request);
-        Page<Product> page = productRepository.findAll(spec, pageable);
+        List<Integer> categoryIds = categoryService.resolveFilter(request.getCategoryId());
+        ProductSlice slice;
+        if (useSearchIndex(request.getKeyword(), categoryIds, request.getLocation())) {
+            SearchQuery query = SearchQuery.builder()
+                    .keyword(request.getKeyword())
+                    .categoryIds(categoryIds)
+                    .minPrice(request.getMinPrice())
+                    .maxPrice(request.getMaxPrice())
+                    .minCondition(request.getCondition())
+                    .sortKey(sortKey)
+                    .ascending(ascending)
+                    .offset(requireOffset(pageIndex, size))
+                    .limit(size)
+                    .build();
+            slice = searchIndexed(query, cursor, countMode);
+        } else {
+            slice = findSlice(ProductFilter.of(request, categoryIds), toSortField(request.getSortBy()), ascending, cursor,
+                    pageIndex, size, countMode);
+            if (sortKey == SearchQuery.SortKey.RELEVANCE) {
+                // 相关度排序只按页码分页
+                slice = new ProductSlice(slice.content(), slice.total(), slice.totalEstimated(), slice.hasMore(), null);
+            }
+        }
 
-        return PageResponse.from(page, ProductListResponse::fromEntity);
+        List<ProductListResponse> content = slice.content().stream()
+                .map(ProductListResponse::fromSummary)
+                .toList();
+        int page = cursor == null ? pageIndex : 0;
+        PageResponse<ProductListResponse> response = PageResponse.of(content, page, size, slice.total(),
+                cursor == null && page == 0, slice.hasMore(), slice.nextCursor());
+        response.setTotalEstimated(slice.totalEstimated());
+        return response;
     }
 
     @Transactional(readOnly = true)
-    public ProductPageResponse getMyProducts(Long sellerId, Integer page, Integer pageSize) {
+    public ProductPageResponse getMyProducts(Long sellerId, Integer page, Integer pageSize,
+                                             String cursorToken, Boolean withTotal, String countMode) {
+        int size = requirePageSize(pageSize);
         // 转换为0-based page
         int pageIndex = Math.max(0, page - 1);
-        Pageable pageable = PageRequest.of(pageIndex, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Product> productPage = productRepository.findBySellerIdAndStatusNot(sellerId, (short) -1, pageable);
+        ProductCursor cursor = ProductCursor.decode(cursorToken);
 
-        List<ProductItemResponse> list = productPage.getContent().stream()
-                .map(ProductItemResponse::fromEntity)
-                .toList();
+        ProductSlice slice = findSlice(ProductFilter.ofSeller(sellerId), ProductCursor.CREATED_AT, false, cursor,
+                pageIndex, size, countModeFor(withTotal, countMode, cursor));
 
-        return ProductPageResponse.builder()
-                .list(list)
-                .total(productPage.getTotalElements())
-                .page(page)
-                .pageSize(pageSize)
-                .build();
+        return toProductPage(slice, page, size);
     }
 
     @Transactional(readOnly = true)
-    public ProductPageResponse getProducts(Integer page, Integer pageSize, String keyword, String category) {
+    public ProductPageResponse getProducts(Integer page, Integer pageSize, String keyword, String category,
+                                           String cursorToken, Boolean withTotal, String countMode) {
+        int size = requirePageSize(pageSize);
         // 转换为0-based page
         int pageIndex = Math.max(0, page - 1);
-        Integer categoryId = mapCategoryToId(category);
-
-        Pageable pageable = PageRequest.of(pageIndex, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
-
-        Page<Product> productPage;
-        if (StringUtils.hasText(keyword) || categoryId != null) {
+        List<Integer> categoryIds = categoryService.resolveFilter(category);
+        ProductCursor cursor = ProductCursor.decode(cursorToken);
+
+        // 有关键词时固定按相关度排序、按页码分页，否则按发布时间，可用游标；
+        // 同一类请求的每一页排序方式相同
+        boolean byRelevance = StringUtils.hasText(keyword);
+        if (byRelevance && cursor != null) {
+            throw new BusinessException(400, "Cursor paging is not supported for keyword search, use page instead");
+        }
+        CountMode mode = countModeFor(withTotal, countMode, cursor);
+
+        ProductSlice slice;
+        if (useSearchIndex(keyword, categoryIds, null)) {
+            SearchQuery query = SearchQuery.builder()
+                    .keyword(keyword)
+                    .categoryIds(categoryIds)
+                    .sortKey(byRelevance ? SearchQuery.SortKey.RELEVANCE : SearchQuery.SortKey.CREATED_AT)
+                    .offset(requireOffset(pageIndex, size))
+                    .limit(size)
+                    .build();
+            slice = searchIndexed(query, cursor, mode);
+        } else {
+            // 索引不可用时关键词查询退化为数据库模糊匹配；同样只按页码分页，不返回游标
             ProductSearchRequest searchRequest = new ProductSearchRequest();
             searchRequest.setKeyword(keyword);
-            searchRequest.setCategoryId(categoryId);
-            searchRequest.setPage(pageIndex);
-            searchRequest.setSize(pageSize);
-            Specification<Product> spec = createSearchSpecification(searchRequest);
-            productPage = productRepository.findAll(spec, pageable);
+            slice = findSlice(ProductFilter.of(searchRequest, categoryIds), ProductCursor.CREATED_AT, false, cursor,
+                    pageIndex, size, mode);
+            if (byRelevance) {
+                slice = new ProductSlice(slice.content(), slice.total(), slice.totalEstimated(), slice.hasMore(), null);
+            }
+        }
+
+        return toProductPage(slice, page, size);
+    }
+
+    public List<ProductListResponse> getLatestProducts(int limit) {
+        return productFeedService.getLatest(clampFeedLimit(limit));
+    }
+
+    public List<ProductListResponse> getHotProducts(int limit, Integer categoryId) {
+        if (categoryId == null) {
+            return productFeedService.getHot(clampFeedLimit(limit));
+        }
+        // 分类榜常驻内存，只为分类表中存在的分类建立
+        CategoryRegistry registry = categoryService.getRegistry();
+        if (!registry.contains(categoryId)) {
+            throw new BusinessException(400, "Unknown category: " + categoryId);
+        }
+        return productFeedService.getHot(clampFeedLimit(limit), categoryId, registry.subtreeOf(categoryId));
+    }
+
+    private int clampFeedLimit(int limit) {
+        return Math.max(1, Math.min(limit, productFeedService.getMaxSize()));
+    }
+
+    private boolean useSearchIndex(String keyword, List<Integer> categoryIds, String location) {
+        return (StringUtils.hasText(keyword) || categoryIds != null) && searchIndex.canServe(keyword, location);
+    }
+
+    /**
+     * 数据库分页：有游标时用 (排序键, id) 定位起点，否则按偏移量；
+     * 多取一条判断是否还有下一页；countMode 为 null 时不统计总数
+     */
+    private ProductSlice findSlice(ProductFilter filter, String sortField, boolean ascending,
+                                   ProductCursor cursor, int pageIndex, int size, CountMode countMode) {
+        Specification<Product> where = createSearchSpecification(filter);
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, sortField).and(Sort.by(direction, "id"));
+
+        Specification<Product> spec = where;
+        long offset;
+        if (cursor != null) {
+            cursor.requireSort(sortField, ascending);
+            spec = where.and(seekAfter(cursor));
+            offset = 0;
         } else {
-            productPage = productRepository.findByStatus((short) 1, pageable);
+            offset = requireOffset(pageIndex, size);
+        }
+
+        List<ProductSummary> rows = productRepository.findSummaries(spec, sort, offset, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<ProductSummary> content = hasMore ? rows.subList(0, size) : rows;
+        ProductCountService.Total total = countMode != null
+                ? productCountService.count(filter, where, countMode)
+                : new ProductCountService.Total(UNKNOWN_TOTAL, false);
+        String nextCursor = hasMore
+                ? ProductCursor.after(content.get(content.size() - 1), sortField, ascending).encode()
+                : null;
+        return new ProductSlice(content, total.value(), total.estimated(), hasMore, nextCursor);
+    }
+
+    /**
+     * 由倒排索引算出当前页的商品ID，再按ID一次性回表并保持索引给出的顺序；
+     * 索引的命中总数是精确值且无需额外查询，countMode 为 null（不统计总数）时不返回
+     */
+    private ProductSlice searchIndexed(SearchQuery query, ProductCursor cursor, CountMode countMode) {
+        String sortField = toSortField(query.getSortKey());
+        if (cursor != null) {
+            if (sortField == null) {
+                throw new BusinessException(400, "Cursor paging is not supported for relevance sort");
+            }
+            cursor.requireSort(sortField, query.isAscending());
+            query.setAfterValue(cursor.getValue());
+            query.setAfterId(cursor.getId());
+            query.setOffset(0);
         }
 
-        List<ProductItemResponse> list = productPage.getContent().stream()
-                .map(ProductItemResponse::fromEntity)
+        SearchHits hits = searchIndex.search(query);
+        long total = countMode != null ? hits.getTotal() : UNKNOWN_TOTAL;
+        if (hits.getIds().isEmpty()) {
+            return new ProductSlice(List.of(), total, false, false, null);
+        }
+
+        Map<Long, ProductSummary> byId = productRepository.findSummariesByIdIn(hits.getIds()).stream()
+                .collect(Collectors.toMap(ProductSummary::id, Function.identity()));
+        List<ProductSummary> content = hits.getIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        String nextCursor = hits.isHasMore() && sortField != null && !content.isEmpty()
+                ? ProductCursor.after(content.get(content.size() - 1), sortField, query.isAscending()).encode()
+                : null;
+        return new ProductSlice(content, total, false, hits.isHasMore(), nextCursor);
+    }
+
+    /**
+     * 游标之后的记录：k <= v AND (k < v OR id < lastId)（升序时方向相反）。
+     * 外层的 k <= v 让 (status, k, id) 索引直接从游标位置开始扫描，等价于 (k, id) < (v, lastId)
+     */
+    private static Specification<Product> seekAfter(ProductCursor cursor) {
+        return switch (cursor.getSortField()) {
+            case ProductCursor.PRICE ->
+                    seekAfter(ProductCursor.PRICE, (BigDecimal) cursor.getValue(), cursor.getId(), cursor.isAscending());
+            case ProductCursor.VIEW_COUNT ->
+                    seekAfter(ProductCursor.VIEW_COUNT, (Integer) cursor.getValue(), cursor.getId(), cursor.isAscending());
+            default ->
+                    seekAfter(ProductCursor.CREATED_AT, (LocalDateTime) cursor.getValue(), cursor.getId(), cursor.isAscending());
+        };
+    }
+
+    private static <Y extends Comparable<? super Y>> Specification<Product> seekAfter(
+            String field, Y value, Long lastId, boolean ascending) {
+        return (root, query, cb) -> {
+            Path<Y> key = root.get(field);
+            Path<Long> id = root.get("id");
+            if (ascending) {
+                return cb.and(cb.greaterThanOrEqualTo(key, value),
+                        cb.or(cb.greaterThan(key, value), cb.greaterThan(id, lastId)));
+            }
+            return cb.and(cb.lessThanOrEqualTo(key, value),
+                    cb.or(cb.lessThan(key, value), cb.lessThan(id, lastId)));
+        };
+    }
+
+    private ProductPageResponse toProductPage(ProductSlice slice, int page, int pageSize) {
+        CategoryRegistry registry = categoryService.getRegistry();
+        List<ProductItemResponse> list = slice.content().stream()
+                .map(summary -> ProductItemResponse.fromSummary(summary, registry.slugOf(summary.categoryId())))
                 .toList();
 
         return ProductPageResponse.builder()
                 .list(list)
-                .total(productPage.getTotalElements())
+                .total(slice.total())
                 .page(page)
                 .pageSize(pageSize)
+                .totalEstimated(slice.totalEstimated())
+                .nextCursor(slice.nextCursor())
                 .build();
     }
 
-    @Transactional(readOnly = true)
-    public List<ProductListResponse> getLatestProducts(int limit) {
-        return productRepository.findTop10ByStatusOrderByCreatedAtDesc((short) 1)
-                .stream()
-                .map(ProductListResponse::fromEntity)
-                .toList();
+    /**
+     * 未指定 withTotal 时偏移分页统计总数、游标分页不统计
+     */
+    private static CountMode countModeFor(Boolean withTotal, String countMode, ProductCursor cursor) {
+        boolean countTotal = withTotal != null ? withTotal : cursor == null;
+        return countTotal ? CountMode.from(countMode) : null;
     }
 
-    @Transactional(readOnly = true)
-    public List<ProductListResponse> getHotProducts(int limit) {
-        return productRepository.findTop10ByStatusOrderByViewCountDesc((short) 1)
-                .stream()
-                .map(ProductListResponse::fromEntity)
-                .toList();
+    private static int requirePageSize(Integer size) {
+        if (size == null || size < 1) {
+            throw new BusinessException(400, "Page size must be at least 1");
+        }
+        if (size > MAX_PAGE_SIZE) {
+            throw new BusinessException(400, "Page size must be at most " + MAX_PAGE_SIZE);
+        }
+        return size;
     }
 
-    private void saveProductImages(Long productId, List<String> imageUrls) {
-        List<ProductImage> images = new ArrayList<>();
-        for (int i = 0; i < imageUrls.size(); i++) {
-            ProductImage image = ProductImage.builder()
-                    .productId(productId)
-                    .imageUrl(imageUrls.get(i))
-                    .sortOrder(i)
-                    .build();
-            images.add(image);
+    /**
+     * 页码乘页大小按 long 计算，避免大页码溢出成负偏移
+     */
+    private static int requireOffset(int pageIndex, int size) {
+        long offset = (long) pageIndex * size;
+        if (offset > MAX_OFFSET) {
+            throw new BusinessException(400, "Page is too deep, use cursor paging instead");
         }
-        productImageRepository.saveAll(images);
+        return (int) offset;
     }
 
-    private Sort createSort(String sortBy, String sortOrder) {
-        Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder)
-                ? Sort.Direction.ASC
-                : Sort.Direction.DESC;
+    private static String toSortField(String sortBy) {
+        if (sortBy == null) {
+            return ProductCursor.CREATED_AT;
+        }
+        return switch (sortBy) {
+            case "price" -> ProductCursor.PRICE;
+            case "viewCount" -> ProductCursor.VIEW_COUNT;
+            default -> ProductCursor.CREATED_AT;
+        };
+    }
 
-        String field = switch (sortBy) {
-            case "price" -> "price";
-            case "viewCount" -> "viewCount";
-            default -> "createdAt";
+    private static String toSortField(SearchQuery.SortKey sortKey) {
+        return switch (sortKey) {
+            case PRICE -> ProductCursor.PRICE;
+            case VIEW_COUNT -> ProductCursor.VIEW_COUNT;
+            case CREATED_AT -> ProductCursor.CREATED_AT;
+            case RELEVANCE -> null;
         };
+    }
 
-        return Sort.by(direction, field);
+    private SearchQuery.SortKey toSortKey(String sortBy) {
+        if (sortBy == null) {
+            return SearchQuery.SortKey.CREATED_AT;
+        }
+        return switch (sortBy) {
+            case "relevance" -> SearchQuery.SortKey.RELEVANCE;
+            case "price" -> SearchQuery.SortKey.PRICE;
+            case "viewCount" -> SearchQuery.SortKey.VIEW_COUNT;
+            default -> SearchQuery.SortKey.CREATED_AT;
+        };
+    }
+
+    private void saveProductImages(Long productId, List<String> imageUrls) {
+        productImageRepository.insertAll(productId, imageUrls);
     }
 
-    private Specification<Product> createSearchSpecification(ProductSearchRequest request) {
+    private Specification<Product> createSearchSpecification(ProductFilter filter) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            // Only show active products
-            predicates.add(cb.equal(root.get("status"), (short) 1));
+            // Only show active products, or everything except deleted ones for the seller's own list
+            if (filter.isIncludeInactive()) {
+                predicates.add(cb.notEqual(root.get("status"), (short) -1));
+            } else {
+                predicates.add(cb.equal(root.get("status"), (short) 1));
+            }
+
+            // Seller filter
+            if (filter.getSellerId() != null) {
+                predicates.add(cb.equal(root.get("sellerId"), filter.getSellerId()));
+            }
 
             // Keyword search
-            if (StringUtils.hasText(request.getKeyword())) {
-                String keyword = "%" + request.getKeyword().toLowerCase() + "%";
+            if (filter.getKeyword() != null) {
+                String keyword = "%" + filter.getKeyword() + "%";
                 Predicate titleMatch = cb.like(cb.lower(root.get("title")), keyword);
                 Predicate descMatch = cb.like(cb.lower(root.get("description")), keyword);
                 predicates.add(cb.or(titleMatch, descMatch));
             }
 
             // Category filter
-            if (request.getCategoryId() != null) {
-                predicates.add(cb.equal(root.get("categoryId"), request.getCategoryId()));
+            if (filter.getCategoryIds() != null) {
+                predicates.add(filter.getCategoryIds().size() == 1
+                        ? cb.equal(root.get("categoryId"), filter.getCategoryIds().get(0))
+                        : root.get("categoryId").in(filter.getCategoryIds()));
             }
 
             // Price range
-            if (request.getMinPrice() != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), request.getMinPrice()));
+            if (filter.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
             }
-            if (request.getMaxPrice() != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("price"), request.getMaxPrice()));
+            if (filter.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
             }
 
             // Condition filter
-            if (request.getCondition() != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("condition"), request.getCondition()));
+            if (filter.getMinCondition() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("condition"), filter.getMinCondition()));
             }
 
             // Location filter
-            if (StringUtils.hasText(request.getLocation())) {
-                predicates.add(cb.like(root.get("location"), "%" + request.getLocation() + "%"));
-            }
-
-            // Fetch associations for list response
-            if (query != null && query.getResultType().equals(Product.class)) {
-                root.fetch("seller", jakarta.persistence.criteria.JoinType.LEFT);
-                root.fetch("category", jakarta.persistence.criteria.JoinType.LEFT);
+            if (filter.getLocation() != null) {
+                predicates.add(cb.like(root.get("location"), "%" + filter.getLocation() + "%"));
             }
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * 一页查询结果；total 为 -1 表示未统计，totalEstimated 表示 total 来自查询计划估计
+     */
+    private record ProductSlice(List<ProductSummary> content, long total, boolean totalEstimated,
+                                boolean hasMore, String nextCursor) {
+    }
 }
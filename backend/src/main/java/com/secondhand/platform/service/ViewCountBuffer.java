@@ -0,0 +1,146 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.event.ViewCountsFlushedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 浏览量写缓冲
+ * 详情页只在内存计数，按时间间隔或累计次数把合并后的增量用一条 UPDATE 批量写回 products.view_count，
+ * 避免热门商品的行锁争用
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ViewCountBuffer {
+
+    // 先按ID顺序锁行再更新，UPDATE ... FROM 的连接顺序由执行计划决定，不能保证加锁顺序
+    private static final String FLUSH_SQL =
+            "WITH d AS (SELECT id, delta FROM unnest(?::bigint[], ?::int[]) AS d(id, delta)), " +
+            "locked AS (SELECT p.id FROM products p JOIN d ON d.id = p.id ORDER BY p.id FOR UPDATE OF p) " +
+            "UPDATE products p SET view_count = COALESCE(p.view_count, 0) + d.delta " +
+            "FROM d JOIN locked l ON l.id = d.id " +
+            "WHERE p.id = d.id " +
+            "RETURNING p.id, p.view_count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${product.view-count.flush-threshold:1000}")
+    private long flushThreshold;
+
+    // 当前接收增量的计数表；每次写回时整体换成新表，只包含上一个间隔内被浏览的商品
+    private volatile ConcurrentHashMap<Long, LongAdder> counters = new ConcurrentHashMap<>();
+    // 上一次换下的计数表：换表前已拿到旧表的 increment 可能在换表后才写入，下一次写回时再收一遍后丢弃
+    private ConcurrentHashMap<Long, LongAdder> retired = new ConcurrentHashMap<>();
+    private final AtomicLong pendingIncrements = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "view-count-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public void increment(Long productId) {
+        counters.computeIfAbsent(productId, id -> new LongAdder()).increment();
+        if (pendingIncrements.incrementAndGet() == flushThreshold) {
+            flushExecutor.execute(this::flush);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.view-count.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flushExecutor.shutdown();
+        flushLock.lock();
+        try {
+            // 两次写回，把换下的计数表也收干净
+            flushLocked();
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        pendingIncrements.set(0);
+
+        ConcurrentHashMap<Long, LongAdder> previous = retired;
+        retired = counters;
+        counters = new ConcurrentHashMap<>();
+
+        // 按商品ID升序绑定，写回语句按ID顺序加行锁
+        TreeMap<Long, Long> pending = new TreeMap<>();
+        collect(previous, pending);
+        collect(retired, pending);
+
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pending.keySet());
+        List<Integer> deltas = pending.values().stream()
+                .map(delta -> (int) Math.min(delta, Integer.MAX_VALUE))
+                .toList();
+
+        Map<Long, Integer> viewCounts = new HashMap<>(ids.size() * 2);
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(FLUSH_SQL);
+                ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+                ps.setArray(2, con.createArrayOf("integer", deltas.toArray()));
+                return ps;
+            }, rs -> {
+                viewCounts.put(rs.getLong(1), rs.getInt(2));
+            });
+        } catch (DataAccessException e) {
+            // 写回失败时增量放回缓冲，下一轮重试
+            for (int i = 0; i < ids.size(); i++) {
+                counters.computeIfAbsent(ids.get(i), id -> new LongAdder()).add(deltas.get(i));
+            }
+            log.warn("Failed to flush view counts for {} products: {}", ids.size(), e.getMessage());
+            return;
+        }
+
+        eventPublisher.publishEvent(new ViewCountsFlushedEvent(viewCounts));
+    }
+
+    private static void collect(ConcurrentHashMap<Long, LongAdder> source, Map<Long, Long> pending) {
+        for (Map.Entry<Long, LongAdder> entry : source.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                pending.merge(entry.getKey(), delta, Long::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.secondhand.platform;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * 集成测试基类
+ * 所有测试类共用一个 PostgreSQL 容器，用 database/init.sql 建表；没有 Docker 时整个测试类跳过
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("secondhand")
+            .withCopyFileToContainer(MountableFile.forHostPath("../database/init.sql"),
+                    "/docker-entrypoint-initdb.d/01_init.sql");
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        if (!POSTGRES.isRunning()) {
+            POSTGRES.start();
+        }
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    /**
+     * init.sql 用显式 id 插入了种子用户，通过序列建用户前需要先跳过它
+     */
+    protected void skipSeededUserIds() {
+        jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('user_accounts', 'id'), " +
+                "GREATEST((SELECT max(id) FROM user_accounts), nextval(pg_get_serial_sequence('user_accounts', 'id'))))",
+                Long.class);
+    }
+
+    protected long insertUser(String prefix) {
+        skipSeededUserIds();
+        String username = prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO user_accounts (username, email, password_hash, password_algo) " +
+                "VALUES (?, ?, 'not-a-hash', 'argon2') RETURNING id",
+                Long.class, username, username + "@example.com");
+    }
+
+    protected long insertProduct(long sellerId, String title, Integer categoryId) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO products (seller_id, title, cover_url, price, category_id, status) " +
+                "VALUES (?, ?, '/uploads/cover.jpg', ?, ?, 1) RETURNING id",
+                Long.class, sellerId, title, new BigDecimal("99.00"), categoryId);
+    }
+}
@@ -0,0 +1,154 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.PostgresIntegrationTest;
+import com.secondhand.platform.dto.ProductSearchRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 列表接口每页执行的 SQL 条数固定，与每页条数无关（没有逐条懒加载卖家、分类、买家）。
+ * 订单列表经 JdbcTemplate 查询，Hibernate 统计看不到，因此在连接层计数，JPA 和 JDBC 语句一并统计
+ */
+class ListStatementCountTest extends PostgresIntegrationTest {
+
+    private static final int PRODUCTS = 60;
+
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+    // 只统计测试线程上的语句，定时任务（浏览量落库、订单过期等）不计入
+    private static volatile Thread countedThread;
+    private static final AtomicLong STATEMENT_COUNT = new AtomicLong();
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    private long sellerId;
+    private long buyerId;
+
+    @TestConfiguration
+    static class StatementCounting {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counting(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        sellerId = insertUser("seller");
+        buyerId = insertUser("buyer");
+        Integer categoryId = jdbcTemplate.queryForObject("SELECT min(id) FROM categories", Integer.class);
+        for (int i = 0; i < PRODUCTS; i++) {
+            long productId = insertProduct(sellerId, "hydration-" + i, categoryId);
+            // 已完成的订单不占用商品的进行中订单唯一约束
+            jdbcTemplate.update(
+                    "INSERT INTO orders (order_no, product_id, buyer_id, seller_id, product_title, product_image, " +
+                    "product_price, total_amount, status) VALUES (?, ?, ?, ?, ?, '/uploads/cover.jpg', ?, ?, 3)",
+                    UUID.randomUUID().toString().replace("-", ""), productId, buyerId, sellerId,
+                    "hydration-" + i, new BigDecimal("99.00"), new BigDecimal("99.00"));
+        }
+    }
+
+    @Test
+    void myProductsStatementCountDoesNotDependOnPageSize() {
+        assertConstantStatementCount(size ->
+                productService.getMyProducts(sellerId, 1, size, null, true, "exact"));
+    }
+
+    @Test
+    void searchStatementCountDoesNotDependOnPageSize() {
+        assertConstantStatementCount(size -> {
+            ProductSearchRequest request = new ProductSearchRequest();
+            request.setPage(0);
+            request.setSize(size);
+            request.setWithTotal(true);
+            request.setCountMode("exact");
+            productService.searchProducts(request);
+        });
+    }
+
+    @Test
+    void buyerOrdersStatementCountDoesNotDependOnPageSize() {
+        assertConstantStatementCount(size ->
+                orderService.getBuyerOrders(buyerId, 1, size, null, null, true));
+    }
+
+    @Test
+    void sellerOrdersStatementCountDoesNotDependOnPageSize() {
+        assertConstantStatementCount(size ->
+                orderService.getSellerOrders(sellerId, 1, size, null, null, true));
+    }
+
+    private void assertConstantStatementCount(IntConsumer listPage) {
+        // 预热：分类表等按需加载的缓存不计入
+        listPage.accept(1);
+
+        long single = statementsFor(listPage, 1);
+        long full = statementsFor(listPage, 50);
+        assertTrue(single > 0, "statements are not being counted");
+        assertEquals(single, full, "statements per page must not grow with page size");
+    }
+
+    private long statementsFor(IntConsumer listPage, int size) {
+        STATEMENT_COUNT.set(0);
+        countedThread = Thread.currentThread();
+        try {
+            listPage.accept(size);
+        } finally {
+            countedThread = null;
+        }
+        return STATEMENT_COUNT.get();
+    }
+
+    private static DataSource counting(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(ListStatementCountTest.class.getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return result instanceof Connection connection ? counting(connection) : result;
+                });
+    }
+
+    private static Connection counting(Connection target) {
+        return (Connection) Proxy.newProxyInstance(ListStatementCountTest.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if (STATEMENT_METHODS.contains(method.getName()) && Thread.currentThread() == countedThread) {
+                        STATEMENT_COUNT.incrementAndGet();
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.PostgresIntegrationTest;
+import com.secondhand.platform.dto.CreateOrderRequest;
+import com.secondhand.platform.entity.Product;
+import com.secondhand.platform.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 多个买家同时下单同一件商品：只有一个成功，其余直接返回 409
+ */
+class OrderPlacementConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int BUYERS = 16;
+    private static final int ROUNDS = 5;
+    // 锁被持有期间全部请求应在该时间内返回；行锁等待会一直阻塞到持有者提交
+    private static final long LOCK_HOLD_BUDGET_MS = 2000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void exactlyOneConcurrentBuyerReservesTheProduct() throws Exception {
+        long sellerId = insertUser("seller");
+        List<Long> buyerIds = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            buyerIds.add(insertUser("buyer"));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(BUYERS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                long productId = insertProduct(sellerId, "stress-" + round, null);
+                List<Integer> codes = placeConcurrently(pool, productId, buyerIds);
+
+                assertEquals(1, codes.stream().filter(code -> code == 200).count(), "codes: " + codes);
+                assertEquals(BUYERS - 1, codes.stream().filter(code -> code == 409).count(), "codes: " + codes);
+                assertEquals(1, jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM orders WHERE product_id = ?", Integer.class, productId));
+                assertEquals(Product.STATUS_RESERVED, jdbcTemplate.queryForObject(
+                        "SELECT status FROM products WHERE id = ?", Short.class, productId));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 先到者的订单事务未提交时，其余买家不等待行锁，立即返回 409
+     */
+    @Test
+    void losersFailFastWhileWinnerTransactionIsOpen() throws Exception {
+        long sellerId = insertUser("seller");
+        List<Long> buyerIds = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            buyerIds.add(insertUser("buyer"));
+        }
+        long productId = insertProduct(sellerId, "fail-fast", null);
+
+        ExecutorService pool = Executors.newFixedThreadPool(BUYERS);
+        // 模拟一个长时间未提交的先到者：在单独的事务中锁住商品行
+        try (Connection holder = dataSource.getConnection()) {
+            holder.setAutoCommit(false);
+            try (PreparedStatement lock = holder.prepareStatement("SELECT id FROM products WHERE id = ? FOR UPDATE")) {
+                lock.setLong(1, productId);
+                lock.executeQuery().close();
+            }
+
+            long start = System.nanoTime();
+            List<Integer> codes = placeConcurrently(pool, productId, buyerIds);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals(BUYERS, codes.stream().filter(code -> code == 409).count(), "codes: " + codes);
+            assertTrue(elapsedMs < LOCK_HOLD_BUDGET_MS,
+                    "losers waited " + elapsedMs + " ms for the row lock instead of failing fast");
+            holder.rollback();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(Product.STATUS_ON_SALE, jdbcTemplate.queryForObject(
+                "SELECT status FROM products WHERE id = ?", Short.class, productId));
+    }
+
+    private List<Integer> placeConcurrently(ExecutorService pool, long productId, List<Long> buyerIds)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (Long buyerId : buyerIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    orderService.createOrder(buyerId, CreateOrderRequest.builder().productId(productId).build());
+                    return 200;
+                } catch (BusinessException e) {
+                    return e.getCode();
+                }
+            }));
+        }
+        start.countDown();
+
+        List<Integer> codes = new ArrayList<>();
+        for (Future<Integer> future : futures) {
+            codes.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,90 @@
+package com.secondhand.platform.service;
+
+import com.secondhand.platform.PostgresIntegrationTest;
+import com.secondhand.platform.dto.ApiResponse;
+import com.secondhand.platform.dto.RegisterRequest;
+import com.secondhand.platform.exception.BusinessException;
+import com.secondhand.platform.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 多个请求同时注册同一用户名和邮箱：只有一个成功，
+ * 其余无论被预检查还是唯一约束拦下，都返回对应字段的 400
+ */
+class RegistrationConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int CLIENTS = 16;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private AuthService authService;
+
+    private final GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler();
+
+    @Test
+    void exactlyOneConcurrentRegistrationSucceeds() throws Exception {
+        skipSeededUserIds();
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String username = "race-" + UUID.randomUUID().toString().substring(0, 8);
+                List<ApiResponse<?>> responses = registerConcurrently(pool, username);
+
+                assertEquals(1, responses.stream().filter(r -> r.getCode() == 200).count(),
+                        "responses: " + responses);
+                assertEquals(CLIENTS - 1, responses.stream()
+                        .filter(r -> r.getCode() == 400 && "Username already exists".equals(r.getMessage()))
+                        .count(), "responses: " + responses);
+                assertEquals(1, jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM user_accounts WHERE username = ?", Integer.class, username));
+                assertEquals(1, jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM user_profiles p JOIN user_accounts a ON a.id = p.user_id " +
+                        "WHERE a.username = ?", Integer.class, username));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 按控制器的异常处理转换为响应，唯一约束冲突走 GlobalExceptionHandler 的约束名映射
+     */
+    private List<ApiResponse<?>> registerConcurrently(ExecutorService pool, String username) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ApiResponse<?>>> futures = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            RegisterRequest request = new RegisterRequest(username, "secret-password", username + "@example.com", null);
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    authService.register(request);
+                    return ApiResponse.success(null);
+                } catch (BusinessException e) {
+                    return exceptionHandler.handleBusinessException(e).getBody();
+                } catch (DataIntegrityViolationException e) {
+                    return exceptionHandler.handleDataIntegrityViolationException(e).getBody();
+                }
+            }));
+        }
+        start.countDown();
+
+        List<ApiResponse<?>> responses = new ArrayList<>();
+        for (Future<ApiResponse<?>> future : futures) {
+            responses.add(future.get(60, TimeUnit.SECONDS));
+        }
+        return responses;
+    }
+}
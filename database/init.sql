@@ -11,6 +11,8 @@ CREATE TABLE user_accounts (
   status SMALLINT NOT NULL DEFAULT 1,
   -- 1: normal, 0: disabled, -1: deleted
 
+  tokens_revoked_before TIMESTAMP,  -- 修改密码时间，此前签发的令牌全部失效
+
   created_at TIMESTAMP DEFAULT now(),
   updated_at TIMESTAMP DEFAULT now()
 );
@@ -27,12 +29,36 @@ CREATE TABLE user_profiles (
   updated_at TIMESTAMP DEFAULT now()
 );
 
+-- 登出时吊销的访问令牌，过期后定时删除
+CREATE TABLE revoked_tokens (
+  jti VARCHAR(64) PRIMARY KEY,
+  user_id BIGINT,
+  expires_at TIMESTAMP NOT NULL,
+  revoked_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+
+-- 刷新令牌族：每次登录一行，记录当前有效的刷新令牌代数；轮换时代数加一，
+-- 重放旧代数的令牌时整族作废；过期后定时删除
+CREATE TABLE refresh_token_families (
+  family_id VARCHAR(64) PRIMARY KEY,
+  user_id BIGINT NOT NULL,
+  generation INT NOT NULL DEFAULT 0,
+  expires_at TIMESTAMP NOT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_refresh_token_families_expires_at ON refresh_token_families(expires_at);
+
 -- ===================== 商品相关表 =====================
 
 -- 商品分类表
 CREATE TABLE categories (
     id SERIAL PRIMARY KEY,
     name VARCHAR(64) NOT NULL,
+    slug VARCHAR(64) UNIQUE,
     parent_id INT REFERENCES categories(id),
     icon VARCHAR(128),
     sort_order INT DEFAULT 0,
@@ -56,7 +82,7 @@ CREATE TABLE products (
     -- 成色: 10=全新, 9=几乎全新, 8=轻微使用痕迹, 7=正常使用痕迹, 5=明显使用痕迹
 
     status SMALLINT NOT NULL DEFAULT 1,
-    -- 状态: 1=上架中, 0=已下架, 2=已售出, -1=已删除
+    -- 状态: 1=上架中, 0=已下架, 2=已售出, 3=已预留(有待支付订单), -1=已删除
 
     location VARCHAR(128),
     view_count INT DEFAULT 0,
@@ -84,6 +110,13 @@ CREATE INDEX idx_products_status ON products(status);
 CREATE INDEX idx_products_created ON products(created_at DESC);
 CREATE INDEX idx_products_price ON products(price);
 
+-- 首页最新/热门榜单加载 (按状态过滤后有序扫描)
+CREATE INDEX idx_products_status_created ON products(status, created_at DESC, id DESC);
+CREATE INDEX idx_products_status_views ON products(status, view_count DESC, id DESC);
+-- 键集分页：按价格排序的列表和"我的商品"列表
+CREATE INDEX idx_products_status_price ON products(status, price, id);
+CREATE INDEX idx_products_seller_created ON products(seller_id, created_at DESC, id DESC);
+
 -- 全文搜索索引 (使用 pg_trgm 扩展实现模糊搜索)
 CREATE EXTENSION IF NOT EXISTS pg_trgm;
 CREATE INDEX idx_products_search ON products USING gin(search_text gin_trgm_ops);
@@ -123,32 +156,47 @@ CREATE TABLE orders (
 );
 
 -- 订单索引
-CREATE INDEX idx_orders_buyer ON orders(buyer_id);
-CREATE INDEX idx_orders_seller ON orders(seller_id);
+-- 买家/卖家订单列表按 (created_at, id) 倒序键集分页
+CREATE INDEX idx_orders_buyer_created ON orders(buyer_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_seller_created ON orders(seller_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_seller_status_created ON orders(seller_id, status, created_at DESC, id DESC);
 CREATE INDEX idx_orders_product ON orders(product_id);
 CREATE INDEX idx_orders_status ON orders(status);
 CREATE INDEX idx_orders_created ON orders(created_at DESC);
 CREATE INDEX idx_orders_order_no ON orders(order_no);
 
+-- 每个商品最多一个进行中的订单（待支付/已支付/已发货）
+CREATE UNIQUE INDEX uq_orders_active_product ON orders(product_id) WHERE status IN (0, 1, 2);
+
+-- 用户订单统计：按 用户 + 角色（0=买家, 1=卖家）+ 订单状态 计数，随订单状态迁移增量更新
+CREATE TABLE order_stats (
+    user_id BIGINT NOT NULL REFERENCES user_accounts(id),
+    role SMALLINT NOT NULL,
+    status SMALLINT NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT now(),
+    PRIMARY KEY (user_id, role, status)
+);
+
 -- 初始化分类数据
-INSERT INTO categories (name, parent_id, icon, sort_order) VALUES
-('数码电子', NULL, 'laptop', 1),
-('服饰鞋包', NULL, 'shirt', 2),
-('图书教材', NULL, 'book', 3),
-('生活用品', NULL, 'home', 4),
-('美妆护肤', NULL, 'gift', 5),
-('运动户外', NULL, 'basketball', 6),
-('游戏娱乐', NULL, 'gamepad', 7),
-('其他', NULL, 'more', 99);
+INSERT INTO categories (name, slug, parent_id, icon, sort_order) VALUES
+('数码电子', 'electronics', NULL, 'laptop', 1),
+('服饰鞋包', 'clothing', NULL, 'shirt', 2),
+('图书教材', 'books', NULL, 'book', 3),
+('生活用品', 'daily', NULL, 'home', 4),
+('美妆护肤', 'beauty', NULL, 'gift', 5),
+('运动户外', 'sports', NULL, 'basketball', 6),
+('游戏娱乐', 'games', NULL, 'gamepad', 7),
+('其他', 'other', NULL, 'more', 99);
 
 -- 数码电子子分类
-INSERT INTO categories (name, parent_id, icon, sort_order) VALUES
-('手机', 1, NULL, 1),
-('电脑', 1, NULL, 2),
-('平板', 1, NULL, 3),
-('相机', 1, NULL, 4),
-('耳机音箱', 1, NULL, 5),
-('其他数码', 1, NULL, 99);
+INSERT INTO categories (name, slug, parent_id, icon, sort_order) VALUES
+('手机', 'phone', 1, NULL, 1),
+('电脑', 'computer', 1, NULL, 2),
+('平板', 'tablet', 1, NULL, 3),
+('相机', 'camera', 1, NULL, 4),
+('耳机音箱', 'audio', 1, NULL, 5),
+('其他数码', 'digital-other', 1, NULL, 99);
 
 
 -- 自动生成的模拟商品数据
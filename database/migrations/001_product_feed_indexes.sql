@@ -0,0 +1,3 @@
+-- 已有数据库升级：首页最新/热门榜单加载使用的复合索引
+CREATE INDEX IF NOT EXISTS idx_products_status_created ON products(status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_products_status_views ON products(status, view_count DESC, id DESC);
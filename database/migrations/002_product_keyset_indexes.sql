@@ -0,0 +1,3 @@
+-- 已有数据库升级：商品列表键集分页使用的复合索引
+CREATE INDEX IF NOT EXISTS idx_products_status_price ON products(status, price, id);
+CREATE INDEX IF NOT EXISTS idx_products_seller_created ON products(seller_id, created_at DESC, id DESC);
@@ -0,0 +1,22 @@
+-- 已有数据库升级：分类增加 slug，作为前端和 API 使用的稳定标识
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS slug VARCHAR(64);
+
+UPDATE categories SET slug = CASE id
+    WHEN 1 THEN 'electronics'
+    WHEN 2 THEN 'clothing'
+    WHEN 3 THEN 'books'
+    WHEN 4 THEN 'daily'
+    WHEN 5 THEN 'beauty'
+    WHEN 6 THEN 'sports'
+    WHEN 7 THEN 'games'
+    WHEN 8 THEN 'other'
+    WHEN 9 THEN 'phone'
+    WHEN 10 THEN 'computer'
+    WHEN 11 THEN 'tablet'
+    WHEN 12 THEN 'camera'
+    WHEN 13 THEN 'audio'
+    WHEN 14 THEN 'digital-other'
+END
+WHERE slug IS NULL AND id BETWEEN 1 AND 14;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_categories_slug ON categories(slug);
@@ -0,0 +1,9 @@
+-- 已有数据库升级：下单时预留商品（products.status = 3），每个商品最多一个进行中的订单
+
+-- 已有的待支付订单对应的商品改为已预留
+UPDATE products SET status = 3, updated_at = now()
+WHERE status = 1
+  AND id IN (SELECT product_id FROM orders WHERE status = 0);
+
+-- 创建前需确认没有同一商品的多个进行中订单，否则索引创建失败
+CREATE UNIQUE INDEX IF NOT EXISTS uq_orders_active_product ON orders(product_id) WHERE status IN (0, 1, 2);
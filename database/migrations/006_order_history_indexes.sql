@@ -0,0 +1,8 @@
+-- 已有数据库升级：买家/卖家订单列表键集分页使用的复合索引
+CREATE INDEX IF NOT EXISTS idx_orders_buyer_created ON orders(buyer_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_seller_created ON orders(seller_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_seller_status_created ON orders(seller_id, status, created_at DESC, id DESC);
+
+-- 单列索引是上面复合索引的前缀，不再需要
+DROP INDEX IF EXISTS idx_orders_buyer;
+DROP INDEX IF EXISTS idx_orders_seller;
@@ -0,0 +1,15 @@
+-- 已有数据库升级：用户订单统计表，并按现有订单初始化
+CREATE TABLE IF NOT EXISTS order_stats (
+  user_id BIGINT NOT NULL REFERENCES user_accounts(id),
+  role SMALLINT NOT NULL,
+  status SMALLINT NOT NULL,
+  order_count BIGINT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP DEFAULT now(),
+  PRIMARY KEY (user_id, role, status)
+);
+
+INSERT INTO order_stats (user_id, role, status, order_count)
+SELECT buyer_id, 0, status, count(*) FROM orders GROUP BY buyer_id, status
+UNION ALL
+SELECT seller_id, 1, status, count(*) FROM orders GROUP BY seller_id, status
+ON CONFLICT (user_id, role, status) DO UPDATE SET order_count = EXCLUDED.order_count, updated_at = now();
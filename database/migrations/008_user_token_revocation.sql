@@ -0,0 +1,2 @@
+-- 已有数据库升级：持久化修改密码时的令牌吊销时间，各节点轮询加载，重启后仍然生效
+ALTER TABLE user_accounts ADD COLUMN IF NOT EXISTS tokens_revoked_before TIMESTAMP;
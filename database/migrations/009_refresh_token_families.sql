@@ -0,0 +1,13 @@
+-- 已有数据库升级：刷新令牌按登录会话（令牌族）一行记录当前代数，取代每次轮换写一条 revoked_tokens
+CREATE TABLE IF NOT EXISTS refresh_token_families (
+  family_id VARCHAR(64) PRIMARY KEY,
+  user_id BIGINT NOT NULL,
+  generation INT NOT NULL DEFAULT 0,
+  expires_at TIMESTAMP NOT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_token_families_expires_at ON refresh_token_families(expires_at);
+
+-- 轮换留下的刷新令牌吊销记录不再需要；登出的访问令牌记录保留
+DELETE FROM revoked_tokens WHERE expires_at > now() + interval '1 day';
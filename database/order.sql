@@ -31,9 +31,24 @@ CREATE TABLE orders (
 );
 
 -- 索引
-CREATE INDEX idx_orders_buyer ON orders(buyer_id);
-CREATE INDEX idx_orders_seller ON orders(seller_id);
+-- 买家/卖家订单列表按 (created_at, id) 倒序键集分页
+CREATE INDEX idx_orders_buyer_created ON orders(buyer_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_seller_created ON orders(seller_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_seller_status_created ON orders(seller_id, status, created_at DESC, id DESC);
 CREATE INDEX idx_orders_product ON orders(product_id);
 CREATE INDEX idx_orders_status ON orders(status);
 CREATE INDEX idx_orders_created ON orders(created_at DESC);
 CREATE INDEX idx_orders_order_no ON orders(order_no);
+
+-- 每个商品最多一个进行中的订单（待支付/已支付/已发货）
+CREATE UNIQUE INDEX uq_orders_active_product ON orders(product_id) WHERE status IN (0, 1, 2);
+
+-- 用户订单统计：按 用户 + 角色（0=买家, 1=卖家）+ 订单状态 计数，随订单状态迁移增量更新
+CREATE TABLE order_stats (
+    user_id BIGINT NOT NULL REFERENCES user_accounts(id),
+    role SMALLINT NOT NULL,
+    status SMALLINT NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT now(),
+    PRIMARY KEY (user_id, role, status)
+);
@@ -2,6 +2,7 @@
 CREATE TABLE categories (
     id SERIAL PRIMARY KEY,
     name VARCHAR(64) NOT NULL,
+    slug VARCHAR(64) UNIQUE,
     parent_id INT REFERENCES categories(id),
     icon VARCHAR(128),
     sort_order INT DEFAULT 0,
@@ -25,7 +26,7 @@ CREATE TABLE products (
     -- 成色: 10=全新, 9=几乎全新, 8=轻微使用痕迹, 7=正常使用痕迹, 5=明显使用痕迹
 
     status SMALLINT NOT NULL DEFAULT 1,
-    -- 状态: 1=上架中, 0=已下架, 2=已售出, -1=已删除
+    -- 状态: 1=上架中, 0=已下架, 2=已售出, 3=已预留(有待支付订单), -1=已删除
 
     location VARCHAR(128),
     view_count INT DEFAULT 0,
@@ -53,26 +54,33 @@ CREATE INDEX idx_products_status ON products(status);
 CREATE INDEX idx_products_created ON products(created_at DESC);
 CREATE INDEX idx_products_price ON products(price);
 
+-- 首页最新/热门榜单加载 (按状态过滤后有序扫描)
+CREATE INDEX idx_products_status_created ON products(status, created_at DESC, id DESC);
+CREATE INDEX idx_products_status_views ON products(status, view_count DESC, id DESC);
+-- 键集分页：按价格排序的列表和"我的商品"列表
+CREATE INDEX idx_products_status_price ON products(status, price, id);
+CREATE INDEX idx_products_seller_created ON products(seller_id, created_at DESC, id DESC);
+
 -- 全文搜索索引 (使用 pg_trgm 扩展实现模糊搜索)
 CREATE EXTENSION IF NOT EXISTS pg_trgm;
 CREATE INDEX idx_products_search ON products USING gin(search_text gin_trgm_ops);
 
 -- 初始化分类数据
-INSERT INTO categories (name, parent_id, icon, sort_order) VALUES
-('数码电子', NULL, 'laptop', 1),
-('服饰鞋包', NULL, 'shirt', 2),
-('图书教材', NULL, 'book', 3),
-('生活用品', NULL, 'home', 4),
-('美妆护肤', NULL, 'gift', 5),
-('运动户外', NULL, 'basketball', 6),
-('游戏娱乐', NULL, 'gamepad', 7),
-('其他', NULL, 'more', 99);
+INSERT INTO categories (name, slug, parent_id, icon, sort_order) VALUES
+('数码电子', 'electronics', NULL, 'laptop', 1),
+('服饰鞋包', 'clothing', NULL, 'shirt', 2),
+('图书教材', 'books', NULL, 'book', 3),
+('生活用品', 'daily', NULL, 'home', 4),
+('美妆护肤', 'beauty', NULL, 'gift', 5),
+('运动户外', 'sports', NULL, 'basketball', 6),
+('游戏娱乐', 'games', NULL, 'gamepad', 7),
+('其他', 'other', NULL, 'more', 99);
 
 -- 数码电子子分类
-INSERT INTO categories (name, parent_id, icon, sort_order) VALUES
-('手机', 1, NULL, 1),
-('电脑', 1, NULL, 2),
-('平板', 1, NULL, 3),
-('相机', 1, NULL, 4),
-('耳机音箱', 1, NULL, 5),
-('其他数码', 1, NULL, 99);
+INSERT INTO categories (name, slug, parent_id, icon, sort_order) VALUES
+('手机', 'phone', 1, NULL, 1),
+('电脑', 'computer', 1, NULL, 2),
+('平板', 'tablet', 1, NULL, 3),
+('相机', 'camera', 1, NULL, 4),
+('耳机音箱', 'audio', 1, NULL, 5),
+('其他数码', 'digital-other', 1, NULL, 99);
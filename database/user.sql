@@ -11,6 +11,8 @@ CREATE TABLE user_accounts (
   status SMALLINT NOT NULL DEFAULT 1,
   -- 1: normal, 0: disabled, -1: deleted
 
+  tokens_revoked_before TIMESTAMP,  -- 修改密码时间，此前签发的令牌全部失效
+
   created_at TIMESTAMP DEFAULT now(),
   updated_at TIMESTAMP DEFAULT now()
 );
@@ -26,3 +28,26 @@ CREATE TABLE user_profiles (
 
   updated_at TIMESTAMP DEFAULT now()
 );
+
+-- 登出时吊销的访问令牌，过期后定时删除
+CREATE TABLE revoked_tokens (
+  jti VARCHAR(64) PRIMARY KEY,
+  user_id BIGINT,
+  expires_at TIMESTAMP NOT NULL,
+  revoked_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+
+-- 刷新令牌族：每次登录一行，记录当前有效的刷新令牌代数；轮换时代数加一，
+-- 重放旧代数的令牌时整族作废；过期后定时删除
+CREATE TABLE refresh_token_families (
+  family_id VARCHAR(64) PRIMARY KEY,
+  user_id BIGINT NOT NULL,
+  generation INT NOT NULL DEFAULT 0,
+  expires_at TIMESTAMP NOT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_refresh_token_families_expires_at ON refresh_token_families(expires_at);
@@ -28,7 +28,7 @@ export const getCurrentUser = () => {
   return request.get<ApiResponse<User>>('/auth/me');
 };
 
-// 退出登录
-export const logout = () => {
-  return request.post<ApiResponse<void>>('/auth/logout');
+// 退出登录，同时吊销刷新令牌
+export const logout = (refreshToken?: string | null) => {
+  return request.post<ApiResponse<void>>('/auth/logout', refreshToken ? { refreshToken } : undefined);
 };
@@ -1,7 +1,7 @@
 import axios, { AxiosError, InternalAxiosRequestConfig, AxiosRequestConfig } from 'axios';
 import { message } from 'antd';
 import { storage } from '../utils/storage';
-import type { ApiResponse } from '../types';
+import type { ApiResponse, AuthResponse } from '../types';
 
 // 扩展 AxiosRequestConfig 类型，添加 silent 选项
 declare module 'axios' {
@@ -33,6 +33,31 @@ request.interceptors.request.use(
   }
 );
 
+// 访问令牌过期时用刷新令牌换取新令牌；并发的 401 请求共用同一次刷新
+let refreshing: Promise<string | null> | null = null;
+
+const refreshAccessToken = (): Promise<string | null> => {
+  const refreshToken = storage.getRefreshToken();
+  if (!refreshToken) {
+    return Promise.resolve(null);
+  }
+  if (!refreshing) {
+    refreshing = axios
+      .post<ApiResponse<AuthResponse>>(`${request.defaults.baseURL}auth/refresh`, { refreshToken })
+      .then((response) => {
+        const { token, refreshToken: nextRefreshToken } = response.data.data;
+        storage.setToken(token);
+        storage.setRefreshToken(nextRefreshToken);
+        return token;
+      })
+      .catch(() => null)
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+};
+
 // 响应拦截器 - 处理错误
 request.interceptors.response.use(
   (response) => {
@@ -49,7 +74,19 @@ request.interceptors.response.use(
 
     return response;
   },
-  (error: AxiosError<ApiResponse>) => {
+  async (error: AxiosError<ApiResponse>) => {
+    // 非认证接口返回 401 时先尝试刷新令牌并重试一次
+    const originalConfig = error.config as (InternalAxiosRequestConfig & { _retried?: boolean }) | undefined;
+    if (error.response?.status === 401 && originalConfig && !originalConfig._retried
+        && !/auth\/(login|register|refresh|logout)/.test(originalConfig.url || '')) {
+      originalConfig._retried = true;
+      const token = await refreshAccessToken();
+      if (token) {
+        originalConfig.headers.Authorization = `Bearer ${token}`;
+        return request(originalConfig);
+      }
+    }
+
     // 如果请求配置了 silent，不显示错误消息
     const isSilent = error.config?.silent;
 
@@ -15,6 +15,24 @@ interface OrderPageResponse {
   totalPages: number;
   first: boolean;
   last: boolean;
+  // 键集分页游标，没有下一页时为 null
+  nextCursor: string | null;
+}
+
+interface OrderListParams {
+  page?: number;
+  pageSize?: number;
+  status?: string;
+  cursor?: string;
+  withTotal?: boolean;
+}
+
+// 订单统计：按状态计数
+type OrderStatusCounts = Record<'pending' | 'paid' | 'shipped' | 'completed' | 'cancelled', number>;
+
+interface OrderStatsResponse {
+  buying: OrderStatusCounts;
+  selling: OrderStatusCounts;
 }
 
 // 创建订单
@@ -28,15 +46,20 @@ export const getOrderDetail = (id: number) => {
 };
 
 // 获取我的购买订单列表
-export const getMyOrders = (params?: { page?: number; pageSize?: number; status?: string }) => {
+export const getMyOrders = (params?: OrderListParams) => {
   return request.get<ApiResponse<OrderPageResponse>>('/orders/my', { params });
 };
 
 // 获取我的销售订单列表
-export const getMySalesOrders = (params?: { page?: number; pageSize?: number; status?: string }) => {
+export const getMySalesOrders = (params?: OrderListParams) => {
   return request.get<ApiResponse<OrderPageResponse>>('/orders/sales', { params });
 };
 
+// 获取我的订单统计
+export const getOrderStats = () => {
+  return request.get<ApiResponse<OrderStatsResponse>>('/orders/stats');
+};
+
 // 支付订单
 export const payOrder = (data: PayOrderRequest) => {
   return request.post<ApiResponse<Order>>('/orders/pay', data);
@@ -24,9 +24,10 @@ export const useAuth = () => {
   const login = useCallback(async (data: LoginRequest) => {
     try {
       const response = await loginApi(data);
-      const { token, user: userData } = response.data.data;
+      const { token, refreshToken, user: userData } = response.data.data;
 
       storage.setToken(token);
+      storage.setRefreshToken(refreshToken);
       storage.setUser(userData);
       setUser(userData);
 
@@ -41,7 +42,7 @@ export const useAuth = () => {
   // 退出登录
   const logout = useCallback(async () => {
     try {
-      await logoutApi();
+      await logoutApi(storage.getRefreshToken());
     } catch {
       // 即使请求失败也要清除本地状态
     }
@@ -22,8 +22,9 @@ const Auth: React.FC = () => {
     setLoading(true);
     try {
       const response = await login(values);
-      const { token, user } = response.data.data;
+      const { token, refreshToken, user } = response.data.data;
       storage.setToken(token);
+      storage.setRefreshToken(refreshToken);
       storage.setUser(user);
       message.success('登录成功');
       navigate(from, { replace: true });
@@ -45,8 +46,9 @@ const Auth: React.FC = () => {
     try {
       const { confirmPassword: _, ...registerData } = values;
       const response = await register(registerData);
-      const { token, user } = response.data.data;
+      const { token, refreshToken, user } = response.data.data;
       storage.setToken(token);
+      storage.setRefreshToken(refreshToken);
       storage.setUser(user);
       message.success('注册成功');
       navigate(from, { replace: true });
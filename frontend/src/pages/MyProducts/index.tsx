@@ -115,6 +115,7 @@ const MyProducts: React.FC = () => {
           on_sale: { color: 'green', text: '在售' },
           off_sale: { color: 'gray', text: '已下架' },
           sold_out: { color: 'red', text: '已售罄' },
+          reserved: { color: 'orange', text: '已预留' },
         };
         const { color, text } = statusMap[status] || { color: 'gray', text: '未知' };
         return <Tag color={color}>{text}</Tag>;
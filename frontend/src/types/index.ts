@@ -27,6 +27,7 @@ export interface ChangePasswordRequest {
 
 export interface AuthResponse {
   token: string;
+  refreshToken: string;
   user: User;
 }
 
@@ -62,7 +63,7 @@ export interface Product {
   images: string[];
   sellerId: number;
   sellerName: string;
-  status: 'on_sale' | 'off_sale' | 'sold_out';
+  status: 'on_sale' | 'off_sale' | 'sold_out' | 'reserved';
   createdAt: string;
   updatedAt: string;
 }
@@ -1,4 +1,5 @@
 const TOKEN_KEY = 'auth_token';
+const REFRESH_TOKEN_KEY = 'refresh_token';
 const USER_KEY = 'user_info';
 
 export const storage = {
@@ -15,6 +16,14 @@ export const storage = {
     localStorage.removeItem(TOKEN_KEY);
   },
 
+  getRefreshToken: (): string | null => {
+    return localStorage.getItem(REFRESH_TOKEN_KEY);
+  },
+
+  setRefreshToken: (token: string): void => {
+    localStorage.setItem(REFRESH_TOKEN_KEY, token);
+  },
+
   // 用户信息操作
   getUser: <T>(): T | null => {
     const userStr = localStorage.getItem(USER_KEY);
@@ -39,6 +48,7 @@ export const storage = {
   // 清除所有认证信息
   clearAuth: (): void => {
     localStorage.removeItem(TOKEN_KEY);
+    localStorage.removeItem(REFRESH_TOKEN_KEY);
     localStorage.removeItem(USER_KEY);
   },
 };